@@ -0,0 +1,192 @@
+package org.acme.schooltimetabling.solver;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.score.director.ScoreDirectorFactoryConfig;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.impl.score.director.InnerScoreDirector;
+import ai.timefold.solver.core.impl.solver.DefaultSolverFactory;
+import org.acme.schooltimetabling.domain.BeamMode;
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.LocalContact;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.Timetable;
+import org.acme.schooltimetabling.generator.TimetableGenerator;
+import org.acme.schooltimetabling.generator.TimetableGeneratorParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Measures incremental score calculation throughput, the same way the solver evaluates a move:
+// change one or two planning variables, calculate the score, undo the change.
+// Each invocation is a single evaluated move, so the throughput is comparable to the score calculation speed in the
+// solver logs. Narrow the run with JMH parameters, for example "-p constraint=proposalSessionProximity -p days=30".
+// Compare a constraint with its baseline implementation the same way, for example
+// "-p constraint=preventLocalContactWithoutAnyAssignment,preventLocalContactWithoutAnyAssignmentFiltering
+// -p staffMembersPerBeamline=3,30".
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConstraintScoreCalculationBenchmark {
+
+  @Param({"3", "12"})
+  int beamlines;
+
+  @Param({"10", "30"})
+  int days;
+
+  @Param({"12", "48"})
+  int proposals;
+
+  @Param({"20"})
+  int sessionsPerProposal;
+
+  @Param({"3"})
+  int staffMembersPerBeamline;
+
+  @Param({
+      IsolatedConstraintProvider.ALL,
+      "beamlineConflict",
+      "proposalConflict",
+      "beamModeConflict",
+      "proposalUnacceptableDates",
+      "fairLocalContactAssignments",
+      "preventLocalContactWithoutAnyAssignment",
+      "preventLocalContactWithoutAnyAssignmentFiltering",
+      "consecutiveProposalSession",
+      "proposalSessionProximity",
+      "proposalPreferredDatesConstraint",
+      "localContactSessionProximity"
+  })
+  String constraint;
+
+  private InnerScoreDirector<Timetable, HardSoftScore> scoreDirector;
+
+  private Random random;
+
+  private List<Session> sessions;
+
+  private Map<BeamMode, List<Session>> sessionsByBeamMode;
+
+  private Map<Beamline, List<Session>> sessionsByBeamline;
+
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    var timetable = TimetableGenerator.generate(new TimetableGeneratorParameters(
+        "benchmark", 0L, LocalDate.of(2024, 1, 1), days, TimetableGeneratorParameters.DEFAULT_BEAM_MODE_PATTERN,
+        beamlines, staffMembersPerBeamline, proposals, sessionsPerProposal, sessionsPerProposal, 0.5));
+    random = new Random(37L);
+    // Randomly initialized, so that every constraint has matches to update
+    for (var session : timetable.getSessions()) {
+      session.setBeamtimeSlot(pick(session.getBeamtimeSlotRange()));
+      session.setLocalContact(pick(session.getLocalContactRange()));
+    }
+    sessions = new ArrayList<>(timetable.getSessions());
+    sessionsByBeamMode = sessions.stream()
+                                 .collect(Collectors.groupingBy(session -> session.getProposal().getBeamMode()));
+    sessionsByBeamline = sessions.stream().collect(Collectors.groupingBy(Session::getBeamline));
+
+    var solverConfig = new SolverConfig()
+        .withSolutionClass(Timetable.class)
+        .withEntityClasses(Session.class)
+        .withScoreDirectorFactory(new ScoreDirectorFactoryConfig()
+                                      .withConstraintProviderClass(IsolatedConstraintProvider.class)
+                                      .withConstraintProviderCustomProperties(Map.of("constraint", constraint)));
+    var solverFactory = (DefaultSolverFactory<Timetable>) SolverFactory.<Timetable>create(solverConfig);
+    scoreDirector = solverFactory.<HardSoftScore>getScoreDirectorFactory().buildScoreDirector();
+    scoreDirector.setWorkingSolution(timetable);
+    scoreDirector.calculateScore();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    scoreDirector.close();
+  }
+
+  @Benchmark
+  public HardSoftScore beamtimeSlotChangeMove() {
+    var session = pick(sessions);
+    var oldBeamtimeSlot = session.getBeamtimeSlot();
+    changeBeamtimeSlot(session, pick(session.getBeamtimeSlotRange()));
+    var score = scoreDirector.calculateScore();
+    changeBeamtimeSlot(session, oldBeamtimeSlot);
+    return score;
+  }
+
+  @Benchmark
+  public HardSoftScore beamtimeSlotSwapMove() {
+    var left = pick(sessions);
+    var right = pick(sessionsByBeamMode.get(left.getProposal().getBeamMode()));
+    var leftBeamtimeSlot = left.getBeamtimeSlot();
+    var rightBeamtimeSlot = right.getBeamtimeSlot();
+    changeBeamtimeSlot(left, rightBeamtimeSlot);
+    changeBeamtimeSlot(right, leftBeamtimeSlot);
+    var score = scoreDirector.calculateScore();
+    changeBeamtimeSlot(left, leftBeamtimeSlot);
+    changeBeamtimeSlot(right, rightBeamtimeSlot);
+    return score;
+  }
+
+  @Benchmark
+  public HardSoftScore localContactChangeMove() {
+    var session = pick(sessions);
+    var oldLocalContact = session.getLocalContact();
+    changeLocalContact(session, pick(session.getLocalContactRange()));
+    var score = scoreDirector.calculateScore();
+    changeLocalContact(session, oldLocalContact);
+    return score;
+  }
+
+  @Benchmark
+  public HardSoftScore localContactSwapMove() {
+    var left = pick(sessions);
+    var right = pick(sessionsByBeamline.get(left.getBeamline()));
+    var leftLocalContact = left.getLocalContact();
+    var rightLocalContact = right.getLocalContact();
+    changeLocalContact(left, rightLocalContact);
+    changeLocalContact(right, leftLocalContact);
+    var score = scoreDirector.calculateScore();
+    changeLocalContact(left, leftLocalContact);
+    changeLocalContact(right, rightLocalContact);
+    return score;
+  }
+
+  private void changeBeamtimeSlot(Session session, BeamtimeSlot beamtimeSlot) {
+    scoreDirector.beforeVariableChanged(session, "beamtimeSlot");
+    session.setBeamtimeSlot(beamtimeSlot);
+    scoreDirector.afterVariableChanged(session, "beamtimeSlot");
+  }
+
+  private void changeLocalContact(Session session, LocalContact localContact) {
+    scoreDirector.beforeVariableChanged(session, "localContact");
+    session.setLocalContact(localContact);
+    scoreDirector.afterVariableChanged(session, "localContact");
+  }
+
+  private <T> T pick(List<T> values) {
+    return values.get(random.nextInt(values.size()));
+  }
+}
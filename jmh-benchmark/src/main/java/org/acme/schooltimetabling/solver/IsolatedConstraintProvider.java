@@ -0,0 +1,61 @@
+package org.acme.schooltimetabling.solver;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.score.stream.Constraint;
+import ai.timefold.solver.core.api.score.stream.ConstraintFactory;
+import ai.timefold.solver.core.api.score.stream.ConstraintProvider;
+import ai.timefold.solver.core.api.score.stream.Joiners;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.StaffMember;
+
+// Exposes either all constraints of TimetableConstraintProvider or a single one of them,
+// selected through the "constraint" custom property of the score director factory config.
+// Earlier implementations of a constraint are kept as baselines, to compare their cost with the current one.
+public class IsolatedConstraintProvider implements ConstraintProvider {
+
+  public static final String ALL = "all";
+
+  private final TimetableConstraintProvider delegate = new TimetableConstraintProvider();
+
+  private String constraint = ALL;
+
+  public void setConstraint(String constraint) {
+    this.constraint = constraint;
+  }
+
+  @Override
+  public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+    if (ALL.equals(constraint)) {
+      return delegate.defineConstraints(constraintFactory);
+    }
+    return new Constraint[]{
+        switch (constraint) {
+          case "beamlineConflict" -> delegate.beamlineConflict(constraintFactory);
+          case "proposalConflict" -> delegate.proposalConflict(constraintFactory);
+          case "beamModeConflict" -> delegate.beamModeConflict(constraintFactory);
+          case "proposalUnacceptableDates" -> delegate.proposalUnacceptableDates(constraintFactory);
+          case "fairLocalContactAssignments" -> delegate.fairLocalContactAssignments(constraintFactory);
+          case "preventLocalContactWithoutAnyAssignment" ->
+              delegate.preventLocalContactWithoutAnyAssignment(constraintFactory);
+          case "preventLocalContactWithoutAnyAssignmentFiltering" ->
+              preventLocalContactWithoutAnyAssignmentFiltering(constraintFactory);
+          case "consecutiveProposalSession" -> delegate.consecutiveProposalSession(constraintFactory);
+          case "proposalSessionProximity" -> delegate.proposalSessionProximity(constraintFactory);
+          case "proposalPreferredDatesConstraint" -> delegate.proposalPreferredDatesConstraint(constraintFactory);
+          case "localContactSessionProximity" -> delegate.localContactSessionProximity(constraintFactory);
+          default -> throw new IllegalArgumentException("Unknown constraint (" + constraint + ").");
+        }
+    };
+  }
+
+  // Baseline: a filtering joiner has no index, so every session change is checked against every staff member
+  Constraint preventLocalContactWithoutAnyAssignmentFiltering(ConstraintFactory constraintFactory) {
+    return constraintFactory.forEach(StaffMember.class)
+                            .ifNotExists(Session.class,
+                                         Joiners.filtering((staffMember, session) -> session.getLocalContact()
+                                                                                            .getStaffMember()
+                                                                                            .equals(staffMember)))
+                            .penalize(HardSoftScore.ONE_HARD)
+                            .asConstraint("prevent localContact without any assignment");
+  }
+}
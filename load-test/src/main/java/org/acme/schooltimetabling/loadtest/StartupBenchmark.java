@@ -0,0 +1,174 @@
+package org.acme.schooltimetabling.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.acme.schooltimetabling.generator.TimetableGenerator;
+import org.acme.schooltimetabling.generator.TimetableGeneratorParameters;
+
+// Starts the application again and again, from the JVM jar and from the native executable, and measures each start:
+// the time to the first answered request, the time to the first feasible best solution of a fixed dataset, the RSS
+// after the first request and the peak RSS up to the first feasible solution. All times are from the process start.
+// Build both first, "mvn package" and "mvn package -Dnative" in the parent directory. A mode that is not built is skipped.
+// Set -Dstartup.jvm-jar, -Dstartup.native-executable, -Dstartup.runs and -Dstartup.port to change the defaults.
+// The RSS is read from /proc, so this only runs on Linux.
+public class StartupBenchmark {
+
+  static final File LOG_DIRECTORY = new File("local/startup");
+
+  // The LARGE demo data: 6 beamlines over 28 days
+  static final TimetableGeneratorParameters DATASET = TimetableGeneratorParameters.ofSize("startup-benchmark", 6, 28, 0L);
+
+  static final Duration TIMEOUT = Duration.ofMinutes(5);
+  static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+  private record Run(long firstRequestMillis, long firstFeasibleMillis, long firstRequestRssKb, long peakRssKb) {
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    int runCount = Integer.getInteger("startup.runs", 5);
+    int port = Integer.getInteger("startup.port", 8081);
+    String portArgument = "-Dquarkus.http.port=" + port;
+    var jvmJar = new File(System.getProperty("startup.jvm-jar", "../target/quarkus-app/quarkus-run.jar"));
+    var nativeExecutable = new File(System.getProperty("startup.native-executable",
+                                                       "../target/experiment-scheduling-1.0-SNAPSHOT-runner"));
+
+    Map<String, List<String>> commandByMode = new LinkedHashMap<>();
+    if (jvmJar.exists()) {
+      String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+      commandByMode.put("jvm", List.of(java, portArgument, "-jar", jvmJar.getPath()));
+    }
+    if (nativeExecutable.exists()) {
+      commandByMode.put("native", List.of(nativeExecutable.getPath(), portArgument));
+    }
+    if (commandByMode.isEmpty()) {
+      throw new IllegalStateException("Neither the JVM jar (%s) nor the native executable (%s) is built."
+                                          .formatted(jvmJar, nativeExecutable));
+    }
+
+    var objectMapper = StatusLatencyLoadTest.createObjectMapper();
+    byte[] dataset = objectMapper.writeValueAsBytes(TimetableGenerator.generate(DATASET));
+    var httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    URI baseUri = URI.create("http://localhost:" + port);
+    LOG_DIRECTORY.mkdirs();
+
+    System.out.printf("%-8s %-8s %16s %16s %20s %14s%n", "mode", "run", "first request", "first feasible",
+                      "RSS at first request", "peak RSS");
+    for (Map.Entry<String, List<String>> entry : commandByMode.entrySet()) {
+      List<Run> runs = new ArrayList<>(runCount);
+      for (int i = 0; i < runCount; i++) {
+        Run run = measure(httpClient, objectMapper, baseUri, entry.getValue(),
+                          new File(LOG_DIRECTORY, entry.getKey() + "-" + i + ".log"), dataset);
+        runs.add(run);
+        print(entry.getKey(), Integer.toString(i + 1), run);
+      }
+      print(entry.getKey(), "median", new Run(median(runs, Run::firstRequestMillis), median(runs, Run::firstFeasibleMillis),
+                                              median(runs, Run::firstRequestRssKb), median(runs, Run::peakRssKb)));
+    }
+  }
+
+  private static Run measure(HttpClient httpClient, ObjectMapper objectMapper, URI baseUri, List<String> command,
+                             File log, byte[] dataset) throws IOException, InterruptedException {
+    long startNanos = System.nanoTime();
+    long timeoutNanos = startNanos + TIMEOUT.toNanos();
+    Process process = new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(log)
+        .start();
+    try {
+      var firstRequest = HttpRequest.newBuilder(baseUri.resolve("/demo-data")).GET().build();
+      while (!isAnswered(httpClient, firstRequest)) {
+        checkRunning(process, log, timeoutNanos);
+        Thread.sleep(POLL_INTERVAL);
+      }
+      long firstRequestMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+      long firstRequestRssKb = readStatusKb(process.pid(), "VmRSS");
+
+      // Solves for longer than the default spent limit, so that the solver does not stop before it is feasible
+      String jobId = StatusLatencyLoadTest.send(httpClient, HttpRequest.newBuilder(baseUri.resolve("/timetables?timeBudget=PT5M"))
+          .header("Content-Type", "application/json")
+          .POST(BodyPublishers.ofByteArray(dataset))
+          .build(), BodyHandlers.ofString()).body();
+      var statusRequest = HttpRequest.newBuilder(baseUri.resolve("/timetables/" + jobId + "/status")).GET().build();
+      while (true) {
+        JsonNode status = objectMapper.readTree(
+            StatusLatencyLoadTest.send(httpClient, statusRequest, BodyHandlers.ofString()).body());
+        JsonNode score = status.get("score");
+        if (score != null && !score.isNull() && HardSoftScore.parseScore(score.asText()).isFeasible()) {
+          break;
+        }
+        if ("NOT_SOLVING".equals(status.path("solverStatus").asText())) {
+          throw new IllegalStateException("The solver stopped before a feasible solution (%s).".formatted(score));
+        }
+        checkRunning(process, log, timeoutNanos);
+        Thread.sleep(POLL_INTERVAL);
+      }
+      long firstFeasibleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+      return new Run(firstRequestMillis, firstFeasibleMillis, firstRequestRssKb, readStatusKb(process.pid(), "VmHWM"));
+    } finally {
+      process.destroy();
+      if (!process.waitFor(30, TimeUnit.SECONDS)) {
+        process.destroyForcibly().waitFor();
+      }
+    }
+  }
+
+  // False while the application is not listening yet
+  private static boolean isAnswered(HttpClient httpClient, HttpRequest request) throws InterruptedException {
+    try {
+      return httpClient.send(request, BodyHandlers.discarding()).statusCode() == 200;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private static void checkRunning(Process process, File log, long timeoutNanos) {
+    if (!process.isAlive()) {
+      throw new IllegalStateException("The application exited with %d, see its log (%s)."
+                                          .formatted(process.exitValue(), log));
+    }
+    if (System.nanoTime() > timeoutNanos) {
+      throw new IllegalStateException("The application took longer than %s, see its log (%s).".formatted(TIMEOUT, log));
+    }
+  }
+
+  // A kB field of /proc/<pid>/status: VmRSS is the current resident set, VmHWM its peak
+  private static long readStatusKb(long pid, String field) throws IOException {
+    for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+      if (line.startsWith(field + ":")) {
+        return Long.parseLong(line.substring(field.length() + 1).trim().split("\\s+")[0]);
+      }
+    }
+    throw new IllegalStateException("No %s in the status of process %d.".formatted(field, pid));
+  }
+
+  private static long median(List<Run> runs, ToLongFunction<Run> metric) {
+    long[] values = runs.stream().mapToLong(metric).toArray();
+    Arrays.sort(values);
+    return values[values.length / 2];
+  }
+
+  private static void print(String mode, String run, Run result) {
+    System.out.printf("%-8s %-8s %13d ms %13d ms %17.1f MB %11.1f MB%n", mode, run, result.firstRequestMillis(),
+                      result.firstFeasibleMillis(), result.firstRequestRssKb() / 1024.0, result.peakRssKb() / 1024.0);
+  }
+}
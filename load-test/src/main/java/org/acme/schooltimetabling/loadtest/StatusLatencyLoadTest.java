@@ -0,0 +1,175 @@
+package org.acme.schooltimetabling.loadtest;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import ai.timefold.solver.jackson.api.TimefoldJacksonModule;
+import org.acme.schooltimetabling.generator.TimetableGenerator;
+import org.acme.schooltimetabling.generator.TimetableGeneratorParameters;
+
+// Polls the status of a job, first on an otherwise idle application, then while other clients upload large timetables
+// as fast as they can, and prints the latency percentiles of both phases. They should be about the same.
+// The uploads go to the score analysis, which is cached after the first one, so that the server spends its time
+// reading the bodies and no solver takes CPU away from the polls.
+// Set -Dloadtest.url, -Dloadtest.uploaders and -Dloadtest.phase-duration (ISO-8601) to change the defaults.
+public class StatusLatencyLoadTest {
+
+  static final File DATA_DIRECTORY = new File("local/data");
+
+  // The size of the largest solver benchmark dataset: 24 beamlines over 112 days, about 45,000 sessions
+  static final TimetableGeneratorParameters UPLOAD = new TimetableGeneratorParameters(
+      "load-test-upload", 4L, LocalDate.of(2024, 1, 1), 112, TimetableGeneratorParameters.DEFAULT_BEAM_MODE_PATTERN,
+      24, 3, 520, 1, 171, 0.5);
+
+  static final Duration WARM_UP_DURATION = Duration.ofSeconds(5);
+  static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+
+  private record Latencies(long[] sortedNanos) {
+
+    long percentileNanos(double percentile) {
+      int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+      return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))];
+    }
+
+    String format() {
+      return "n=%d p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms".formatted(
+          sortedNanos.length, percentileNanos(0.50) / 1e6, percentileNanos(0.90) / 1e6,
+          percentileNanos(0.99) / 1e6, sortedNanos[sortedNanos.length - 1] / 1e6);
+    }
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    URI baseUri = URI.create(System.getProperty("loadtest.url", "http://localhost:8080"));
+    int uploaderCount = Integer.getInteger("loadtest.uploaders", 8);
+    Duration phaseDuration = Duration.parse(System.getProperty("loadtest.phase-duration", "PT30S"));
+
+    var objectMapper = createObjectMapper();
+    File upload = writeUpload(objectMapper);
+    var httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    // A small job, solved briefly, only there to be polled
+    byte[] statusProblem = objectMapper.writeValueAsBytes(
+        TimetableGenerator.generate(TimetableGeneratorParameters.ofSize("load-test-status", 3, 10, 0L)));
+    HttpResponse<String> submitResponse = send(httpClient, HttpRequest.newBuilder(baseUri.resolve("/timetables?timeBudget=PT1S"))
+        .header("Content-Type", "application/json")
+        .header("X-Client-Id", "load-test")
+        .POST(BodyPublishers.ofByteArray(statusProblem))
+        .build(), BodyHandlers.ofString());
+    URI statusUri = baseUri.resolve("/timetables/" + submitResponse.body() + "/status");
+    HttpRequest uploadRequest = HttpRequest.newBuilder(baseUri.resolve("/timetables/analyze?fetchPolicy=FETCH_SHALLOW"))
+        .header("Content-Type", "application/json")
+        .PUT(BodyPublishers.ofFile(upload.toPath()))
+        .build();
+
+    // Warms up the server's status and upload paths, and caches the analysis of the upload
+    send(httpClient, uploadRequest, BodyHandlers.discarding());
+    pollStatus(httpClient, statusUri, WARM_UP_DURATION);
+
+    Latencies idle = pollStatus(httpClient, statusUri, phaseDuration);
+
+    var uploading = new AtomicBoolean(true);
+    var uploadCount = new AtomicInteger();
+    Latencies loaded;
+    try (ExecutorService uploaders = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<?>> uploaderFutures = new ArrayList<>(uploaderCount);
+      for (int i = 0; i < uploaderCount; i++) {
+        uploaderFutures.add(uploaders.submit(() -> {
+          while (uploading.get()) {
+            send(httpClient, uploadRequest, BodyHandlers.discarding());
+            uploadCount.incrementAndGet();
+          }
+          return null;
+        }));
+      }
+      try {
+        loaded = pollStatus(httpClient, statusUri, phaseDuration);
+      } finally {
+        uploading.set(false);
+      }
+      for (Future<?> uploaderFuture : uploaderFutures) {
+        try {
+          uploaderFuture.get();
+        } catch (ExecutionException e) {
+          throw new IllegalStateException("An upload failed.", e.getCause());
+        }
+      }
+    }
+
+    System.out.printf("Status polls, idle:      %s%n", idle.format());
+    System.out.printf("Status polls, uploading: %s%n", loaded.format());
+    System.out.printf("Uploads: %d of %.1f MB by %d clients in %s%n", uploadCount.get(), upload.length() / 1e6,
+                      uploaderCount, phaseDuration);
+  }
+
+  private static Latencies pollStatus(HttpClient httpClient, URI statusUri, Duration duration)
+      throws IOException, InterruptedException {
+    var statusRequest = HttpRequest.newBuilder(statusUri).GET().build();
+    var latencies = new ArrayList<Long>();
+    long endNanos = System.nanoTime() + duration.toNanos();
+    while (System.nanoTime() < endNanos) {
+      long startNanos = System.nanoTime();
+      send(httpClient, statusRequest, BodyHandlers.discarding());
+      latencies.add(System.nanoTime() - startNanos);
+      Thread.sleep(POLL_INTERVAL);
+    }
+    return new Latencies(latencies.stream().mapToLong(Long::longValue).sorted().toArray());
+  }
+
+  static <T> HttpResponse<T> send(HttpClient httpClient, HttpRequest request,
+                                  HttpResponse.BodyHandler<T> bodyHandler)
+      throws IOException, InterruptedException {
+    HttpResponse<T> response = httpClient.send(request, bodyHandler);
+    if (response.statusCode() / 100 != 2) {
+      throw new IllegalStateException("The request (%s %s) failed with status %d."
+                                          .formatted(request.method(), request.uri(), response.statusCode()));
+    }
+    return response;
+  }
+
+  private static File writeUpload(ObjectMapper objectMapper) {
+    DATA_DIRECTORY.mkdirs();
+    var file = new File(DATA_DIRECTORY, UPLOAD.name() + ".json");
+    if (!file.exists()) {
+      try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file))) {
+        TimetableGenerator.write(UPLOAD, objectMapper, outputStream);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed writing the upload (%s).".formatted(file), e);
+      }
+    }
+    return file;
+  }
+
+  // Configured like the Quarkus object mapper
+  static ObjectMapper createObjectMapper() {
+    return new ObjectMapper()
+        .registerModule(TimefoldJacksonModule.createModule())
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+  }
+}
@@ -0,0 +1,54 @@
+package org.acme.schooltimetabling.benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import ai.timefold.solver.benchmark.api.PlannerBenchmarkFactory;
+import org.acme.schooltimetabling.generator.TimetableGenerator;
+import org.acme.schooltimetabling.generator.TimetableGeneratorParameters;
+
+// Generates the missing datasets, then runs every solver configuration of the benchmark config on each of them
+// and opens the HTML report. Delete local/data to regenerate the datasets after changing the generator.
+public class TimetableBenchmarkApp {
+
+  static final File DATA_DIRECTORY = new File("local/data");
+
+  // Of increasing size, from about the demo data up to a few months of a large facility.
+  // The sessions fill about 70% of the slots, so every size is feasible but not trivially so.
+  static final List<TimetableGeneratorParameters> DATASETS = List.of(
+      dataset("timetable-03bl-010d", 3, 10, 12, 1L),
+      dataset("timetable-06bl-028d", 6, 28, 40, 2L),
+      dataset("timetable-12bl-056d", 12, 56, 140, 3L),
+      dataset("timetable-24bl-112d", 24, 112, 520, 4L));
+
+  private static TimetableGeneratorParameters dataset(String name, int beamlineCount, int dayCount, int proposalCount,
+                                                      long seed) {
+    int meanSessionsPerProposal = Math.max(1, (int) (0.7 * dayCount * 24 * beamlineCount / proposalCount));
+    return new TimetableGeneratorParameters(name, seed, LocalDate.of(2024, 1, 1), dayCount,
+                                            TimetableGeneratorParameters.DEFAULT_BEAM_MODE_PATTERN, beamlineCount, 3,
+                                            proposalCount, 1, 2 * meanSessionsPerProposal - 1, 0.5);
+  }
+
+  public static void main(String[] args) {
+    DATA_DIRECTORY.mkdirs();
+    var objectMapper = TimetableSolutionFileIO.createObjectMapper();
+    for (TimetableGeneratorParameters dataset : DATASETS) {
+      var file = new File(DATA_DIRECTORY, dataset.name() + ".json");
+      if (!file.exists()) {
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file))) {
+          TimetableGenerator.write(dataset, objectMapper, outputStream);
+        } catch (IOException e) {
+          throw new UncheckedIOException("Failed writing the dataset (%s).".formatted(file), e);
+        }
+      }
+    }
+    var benchmarkFactory = PlannerBenchmarkFactory.createFromXmlResource("timetableBenchmarkConfig.xml");
+    benchmarkFactory.buildPlannerBenchmark().benchmarkAndShowReportInBrowser();
+  }
+}
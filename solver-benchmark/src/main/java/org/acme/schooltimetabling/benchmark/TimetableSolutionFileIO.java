@@ -0,0 +1,26 @@
+package org.acme.schooltimetabling.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import ai.timefold.solver.jackson.api.TimefoldJacksonModule;
+import ai.timefold.solver.jackson.impl.domain.solution.JacksonSolutionFileIO;
+import org.acme.schooltimetabling.domain.Timetable;
+
+// Reads and writes the datasets in the JSON format of the REST API, configured like the Quarkus object mapper
+public class TimetableSolutionFileIO extends JacksonSolutionFileIO<Timetable> {
+
+  public TimetableSolutionFileIO() {
+    super(Timetable.class, createObjectMapper());
+  }
+
+  static ObjectMapper createObjectMapper() {
+    return new ObjectMapper()
+        .registerModule(TimefoldJacksonModule.createModule())
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+  }
+}
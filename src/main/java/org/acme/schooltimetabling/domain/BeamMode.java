@@ -1,14 +1,17 @@
 package org.acme.schooltimetabling.domain;
 
-import lombok.Data;
-import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.UUID;
 
-@Data
+// Identity equality, the slots and proposals of a beam mode share one instance (see Timetable)
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
-@EqualsAndHashCode(of = {"id"})
 public class BeamMode {
 
   private String id;
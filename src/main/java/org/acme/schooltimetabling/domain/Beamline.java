@@ -3,15 +3,16 @@ package org.acme.schooltimetabling.domain;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
-import lombok.Data;
-import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 
 import java.util.List;
 
-@Data
-@EqualsAndHashCode(of = {"id"})
+// Identity equality, like the other facts. Jackson resolves every reference to the same instance.
+@Getter
+@Setter
 @ToString(of = { "id" })
 @NoArgsConstructor
 @JsonIdentityInfo(scope = Beamline.class, generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
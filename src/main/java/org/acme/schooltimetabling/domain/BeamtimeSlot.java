@@ -4,18 +4,19 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoField;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
-import lombok.Data;
-import lombok.EqualsAndHashCode;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 
-@Data
-@EqualsAndHashCode(of = {"id"})
+// Identity equality: the timetable holds one instance per slot, which the sessions reference (see Timetable)
+@Getter
+@Setter
 @ToString(of = { "date", "hour" })
 @NoArgsConstructor
 public class BeamtimeSlot {
@@ -29,16 +30,46 @@ public class BeamtimeSlot {
 
   private BeamMode beamMode;
 
-  @JsonIgnore
+  // Derived from the date and hour by their setters, so that the constraints read a field
+  @Setter(AccessLevel.NONE)
+  private long epochDay;
+
+  @Setter(AccessLevel.NONE)
   private long index;
 
   public BeamtimeSlot(LocalDate date, int hour, BeamMode beamMode) {
     this.id = "%1$s/%2$s".formatted(date.format(DateTimeFormatter.ISO_DATE), hour);
+    this.beamMode = beamMode;
     this.date = date;
     this.hour = hour;
-    this.beamMode = beamMode;
+    updateIndex();
+  }
 
-    index = this.date.getLong(ChronoField.EPOCH_DAY) * 24 + hour;
+  public void setDate(LocalDate date) {
+    this.date = date;
+    updateIndex();
+  }
+
+  public void setHour(int hour) {
+    this.hour = hour;
+    updateIndex();
+  }
+
+  // Private, so that the constructor calls no method a subclass could override
+  private void updateIndex() {
+    this.epochDay = date == null ? 0L : date.toEpochDay();
+    this.index = epochDay * 24 + hour;
+  }
+
+  // Hours since the epoch, also correct for deserialized slots
+  @JsonIgnore
+  public long getIndex() {
+    return index;
+  }
+
+  @JsonIgnore
+  public long getEpochDay() {
+    return epochDay;
   }
 
   public LocalDateTime getStartsAt() {
@@ -0,0 +1,75 @@
+package org.acme.schooltimetabling.domain;
+
+import java.util.BitSet;
+import java.util.List;
+
+// Immutable day lookup of a list of date preferences, keyed by epoch-day.
+// Built once when the preferences are set, so that the date constraints do not scan the preferences on every move.
+public final class DatePreferenceIndex {
+
+  public static final DatePreferenceIndex EMPTY = new DatePreferenceIndex(0L, 0, new BitSet(0), new BitSet(0));
+
+  private final long firstEpochDay;
+
+  private final int dayCount;
+
+  private final BitSet acceptableDays;
+
+  private final BitSet unacceptableDays;
+
+  private DatePreferenceIndex(long firstEpochDay, int dayCount, BitSet acceptableDays, BitSet unacceptableDays) {
+    this.firstEpochDay = firstEpochDay;
+    this.dayCount = dayCount;
+    this.acceptableDays = acceptableDays;
+    this.unacceptableDays = unacceptableDays;
+  }
+
+  public static DatePreferenceIndex of(List<DatePreference> datePreferences) {
+    if (datePreferences == null || datePreferences.isEmpty()) {
+      return EMPTY;
+    }
+    var firstEpochDay = Long.MAX_VALUE;
+    var lastEpochDay = Long.MIN_VALUE;
+    for (var datePreference : datePreferences) {
+      firstEpochDay = Math.min(firstEpochDay, datePreference.getStart().toEpochDay());
+      lastEpochDay = Math.max(lastEpochDay, datePreference.getEndIncluded().toEpochDay());
+    }
+    if (lastEpochDay < firstEpochDay) {
+      return EMPTY;
+    }
+    var dayCount = Math.toIntExact(lastEpochDay - firstEpochDay + 1);
+    var acceptableDays = new BitSet(dayCount);
+    var unacceptableDays = new BitSet(dayCount);
+    for (var datePreference : datePreferences) {
+      var fromIndex = (int) (datePreference.getStart().toEpochDay() - firstEpochDay);
+      var toIndex = (int) (datePreference.getEndIncluded().toEpochDay() - firstEpochDay) + 1;
+      if (fromIndex < toIndex) {
+        (datePreference.isAcceptable() ? acceptableDays : unacceptableDays).set(fromIndex, toIndex);
+      }
+    }
+    return new DatePreferenceIndex(firstEpochDay, dayCount, acceptableDays, unacceptableDays);
+  }
+
+  public boolean isEmpty() {
+    return dayCount == 0;
+  }
+
+  public boolean isAcceptable(long epochDay) {
+    return contains(acceptableDays, epochDay);
+  }
+
+  public boolean isUnacceptable(long epochDay) {
+    return contains(unacceptableDays, epochDay);
+  }
+
+  // The first acceptable day, or Long.MAX_VALUE if no day is acceptable
+  public long firstAcceptableEpochDay() {
+    var offset = acceptableDays.nextSetBit(0);
+    return offset < 0 ? Long.MAX_VALUE : firstEpochDay + offset;
+  }
+
+  private boolean contains(BitSet days, long epochDay) {
+    var offset = epochDay - firstEpochDay;
+    return offset >= 0 && offset < dayCount && days.get((int) offset);
+  }
+}
@@ -1,12 +1,17 @@
 package org.acme.schooltimetabling.domain;
 
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.UUID;
 
-@Data
+// Identity equality, like the other facts
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 public class LocalContact {
 
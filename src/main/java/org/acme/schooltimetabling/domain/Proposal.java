@@ -1,14 +1,20 @@
 package org.acme.schooltimetabling.domain;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.List;
 
-@Data
+// Identity equality, the sessions of a proposal share one instance (see Timetable).
+// Joining sessions by proposal then hashes no date preferences.
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
-@AllArgsConstructor
 public class Proposal {
 
   private String finalNumber;
@@ -18,8 +24,24 @@ public class Proposal {
 
   private List<DatePreference> datePreferences;
 
+  @JsonIgnore
+  @Setter(AccessLevel.NONE)
+  @ToString.Exclude
+  private DatePreferenceIndex datePreferenceIndex = DatePreferenceIndex.EMPTY;
+
   public Proposal(String finalNumber, BeamMode beamMode) {
     this.finalNumber = finalNumber;
     this.beamMode = beamMode;
   }
+
+  public Proposal(String finalNumber, BeamMode beamMode, List<DatePreference> datePreferences) {
+    this(finalNumber, beamMode);
+    this.datePreferences = datePreferences;
+    this.datePreferenceIndex = DatePreferenceIndex.of(datePreferences);
+  }
+
+  public void setDatePreferences(List<DatePreference> datePreferences) {
+    this.datePreferences = datePreferences;
+    this.datePreferenceIndex = DatePreferenceIndex.of(datePreferences);
+  }
 }
@@ -1,15 +1,23 @@
 package org.acme.schooltimetabling.domain;
 
+import java.util.List;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import ai.timefold.solver.core.api.domain.entity.PlanningEntity;
+import ai.timefold.solver.core.api.domain.entity.PlanningPin;
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
+import ai.timefold.solver.core.api.domain.valuerange.ValueRangeProvider;
 import ai.timefold.solver.core.api.domain.variable.PlanningVariable;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 
-@Data
+// Identity equality: hashing the planning variables would change the hash on every move
+@Getter
+@Setter
 @ToString(of = { "id" })
 @NoArgsConstructor
 @PlanningEntity
@@ -20,14 +28,29 @@ public class Session {
 
   private Proposal proposal;
 
-  @PlanningVariable
+  @PlanningVariable(valueRangeProviderRefs = "beamtimeSlotRange")
   private BeamtimeSlot beamtimeSlot;
 
-  @PlanningVariable
+  @PlanningVariable(valueRangeProviderRefs = "localContactRange")
   private LocalContact localContact;
 
   private Beamline beamline;
 
+  // Set on the sessions of already solved rolling horizon windows, so that the next window does not move them
+  @JsonIgnore
+  @PlanningPin
+  private boolean pinned;
+
+  // Only the beamtime slots in the beam mode of the session's proposal, set by Timetable
+  @JsonIgnore
+  @ValueRangeProvider(id = "beamtimeSlotRange")
+  private List<BeamtimeSlot> beamtimeSlotRange;
+
+  // Only the local contacts of the session's beamline, set by Timetable
+  @JsonIgnore
+  @ValueRangeProvider(id = "localContactRange")
+  private List<LocalContact> localContactRange;
+
   public Session(Proposal proposal, Beamline beamline) {
     this.id = UUID.randomUUID().toString();
     this.proposal = proposal;
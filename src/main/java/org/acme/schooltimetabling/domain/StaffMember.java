@@ -1,15 +1,18 @@
 package org.acme.schooltimetabling.domain;
 
 import ai.timefold.solver.core.api.domain.lookup.PlanningId;
-import lombok.Data;
-import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.List;
 import java.util.UUID;
 
-@Data
-@EqualsAndHashCode(of = {"id"})
+// Identity equality, like the other facts
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 public class StaffMember {
 
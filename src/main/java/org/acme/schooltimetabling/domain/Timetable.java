@@ -1,6 +1,12 @@
 package org.acme.schooltimetabling.domain;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import ai.timefold.solver.core.api.domain.solution.PlanningEntityCollectionProperty;
 import ai.timefold.solver.core.api.domain.solution.PlanningScore;
@@ -24,9 +30,19 @@ public class Timetable {
 
   @Getter
   @ProblemFactCollectionProperty
-  @ValueRangeProvider
   private List<BeamtimeSlot> beamtimeSlots;
 
+  // Slots outside the planned horizon that only hold pinned sessions, like the lookback days of a rolling-horizon window.
+  // Left out of the per-mode slot lists and the value ranges.
+  @Getter
+  @JsonIgnore
+  @ProblemFactCollectionProperty
+  private List<BeamtimeSlot> pinnedBeamtimeSlots = List.of();
+
+  @Getter
+  @JsonIgnore
+  private Map<BeamMode, List<BeamtimeSlot>> beamtimeSlotsByBeamMode;
+
   @Getter
   @ProblemFactCollectionProperty
   @ValueRangeProvider
@@ -34,7 +50,6 @@ public class Timetable {
 
   @Getter
   @ProblemFactCollectionProperty
-  @ValueRangeProvider
   private List<LocalContact> localContacts;
 
   @Getter
@@ -47,6 +62,7 @@ public class Timetable {
   private List<Session> sessions;
 
   @Getter
+  @Setter
   @PlanningScore
   private HardSoftScore score;
 
@@ -56,6 +72,18 @@ public class Timetable {
   // Ignored by Timefold, used by the UI to display solve or stop solving button
   private SolverStatus solverStatus;
 
+  @Getter
+  @Setter
+  // Ignored by Timefold, used by the UI while the job waits to be admitted, null once it solves
+  private Integer queuePosition;
+
+  @Getter
+  @Setter
+  @JsonIgnore
+  // Ignored by Timefold, receives the time of each solver phase of the timetable's job, see PhaseTimer.
+  // The solution cloner copies the reference, so the working solutions of the job's solvers share it.
+  private ObjLongConsumer<String> phaseTimeListener;
+
   public Timetable(String name, HardSoftScore score, SolverStatus solverStatus) {
     this.name = name;
     this.score = score;
@@ -67,15 +95,129 @@ public class Timetable {
                    List<Beamline> beamlines,
                    List<Session> sessions,
                    List<LocalContact> localContacts) {
+    this(name,
+         beamtimeSlots,
+         beamlines,
+         sessions,
+         localContacts,
+         localContacts.stream()
+                      .map(LocalContact::getStaffMember)
+                      .distinct()
+                      .toList());
+  }
+
+  public Timetable(String name,
+                   List<BeamtimeSlot> beamtimeSlots,
+                   List<Beamline> beamlines,
+                   List<Session> sessions,
+                   List<LocalContact> localContacts,
+                   List<StaffMember> staffMembers) {
     this.name = name;
     this.beamtimeSlots = beamtimeSlots;
     this.beamlines = beamlines;
     this.sessions = sessions;
     this.localContacts = localContacts;
-    this.staffMembers = localContacts.stream()
-                                     .map(LocalContact::getStaffMember)
-                                     .distinct()
-                                     .toList();
+    this.staffMembers = staffMembers;
+    updateValueRanges();
+  }
+
+  // Explicit setters so that the per-mode slot lists and the per-session value ranges are also built when Jackson deserializes a timetable
+  public void setBeamtimeSlots(List<BeamtimeSlot> beamtimeSlots) {
+    this.beamtimeSlots = beamtimeSlots;
+    updateValueRanges();
+  }
+
+  public void setPinnedBeamtimeSlots(List<BeamtimeSlot> pinnedBeamtimeSlots) {
+    this.pinnedBeamtimeSlots = pinnedBeamtimeSlots;
+    updateValueRanges();
+  }
+
+  public void setSessions(List<Session> sessions) {
+    this.sessions = sessions;
+    updateValueRanges();
+  }
+
+  public void setLocalContacts(List<LocalContact> localContacts) {
+    this.localContacts = localContacts;
+    updateValueRanges();
+  }
+
+  public void setStaffMembers(List<StaffMember> staffMembers) {
+    this.staffMembers = staffMembers;
+    updateValueRanges();
+  }
+
+  private void updateValueRanges() {
+    if (sessions == null || beamtimeSlots == null || localContacts == null) {
+      return;
+    }
+    shareFacts();
+    beamtimeSlotsByBeamMode = beamtimeSlots.stream()
+                                           .collect(Collectors.groupingBy(BeamtimeSlot::getBeamMode));
+    Map<Beamline, List<LocalContact>> localContactsByBeamline = localContacts.stream()
+                                                                            .collect(Collectors.groupingBy(LocalContact::getBeamline));
+    for (var session : sessions) {
+      session.setBeamtimeSlotRange(beamtimeSlotsByBeamMode.getOrDefault(session.getProposal()
+                                                                               .getBeamMode(), List.of()));
+      // The solver can not plan a session without any local contact, and the constraints expect every session to have one
+      List<LocalContact> localContactRange = localContactsByBeamline.get(session.getBeamline());
+      if (localContactRange == null) {
+        throw new IllegalArgumentException("The session (%s) is on a beamline (%s) without any local contact."
+                                               .formatted(session.getId(), session.getBeamline().getId()));
+      }
+      session.setLocalContactRange(localContactRange);
+    }
+  }
+
+  // The facts compare by identity, but Jackson gives every reference to a slot, local contact, staff member, proposal or
+  // beam mode its own copy. Points the references to the instances of the fact lists, matching by ID, the sessions of
+  // a proposal to one proposal instance and the slots and proposals of a beam mode to one beam mode instance.
+  // Does nothing for a timetable built from shared instances.
+  private void shareFacts() {
+    Map<String, StaffMember> staffMembersById = new HashMap<>();
+    if (staffMembers != null) {
+      staffMembers.forEach(staffMember -> staffMembersById.putIfAbsent(staffMember.getId(), staffMember));
+    }
+    Map<String, LocalContact> localContactsById = new HashMap<>();
+    for (LocalContact localContact : localContacts) {
+      localContactsById.putIfAbsent(localContact.getId(), localContact);
+      StaffMember staffMember = localContact.getStaffMember();
+      if (staffMember != null) {
+        localContact.setStaffMember(staffMembersById.computeIfAbsent(staffMember.getId(), id -> staffMember));
+      }
+    }
+    Map<String, BeamMode> beamModesById = new HashMap<>();
+    Map<String, BeamtimeSlot> beamtimeSlotsById = new HashMap<>();
+    for (BeamtimeSlot beamtimeSlot : beamtimeSlots) {
+      beamtimeSlotsById.putIfAbsent(beamtimeSlot.getId(), beamtimeSlot);
+      beamtimeSlot.setBeamMode(shareBeamMode(beamModesById, beamtimeSlot.getBeamMode()));
+    }
+    for (BeamtimeSlot beamtimeSlot : pinnedBeamtimeSlots) {
+      beamtimeSlotsById.putIfAbsent(beamtimeSlot.getId(), beamtimeSlot);
+      beamtimeSlot.setBeamMode(shareBeamMode(beamModesById, beamtimeSlot.getBeamMode()));
+    }
+    Map<String, Proposal> proposalsByFinalNumber = new HashMap<>();
+    for (Session session : sessions) {
+      Proposal proposal = session.getProposal();
+      if (proposal != null) {
+        session.setProposal(proposalsByFinalNumber.computeIfAbsent(proposal.getFinalNumber(), finalNumber -> {
+          proposal.setBeamMode(shareBeamMode(beamModesById, proposal.getBeamMode()));
+          return proposal;
+        }));
+      }
+      BeamtimeSlot beamtimeSlot = session.getBeamtimeSlot();
+      if (beamtimeSlot != null) {
+        session.setBeamtimeSlot(beamtimeSlotsById.getOrDefault(beamtimeSlot.getId(), beamtimeSlot));
+      }
+      LocalContact localContact = session.getLocalContact();
+      if (localContact != null) {
+        session.setLocalContact(localContactsById.getOrDefault(localContact.getId(), localContact));
+      }
+    }
+  }
+
+  private static BeamMode shareBeamMode(Map<String, BeamMode> beamModesById, BeamMode beamMode) {
+    return beamMode == null ? null : beamModesById.computeIfAbsent(beamMode.getId(), id -> beamMode);
   }
 
 }
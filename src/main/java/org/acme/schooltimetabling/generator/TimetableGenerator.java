@@ -0,0 +1,167 @@
+package org.acme.schooltimetabling.generator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import org.acme.schooltimetabling.domain.BeamMode;
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.DatePreference;
+import org.acme.schooltimetabling.domain.LocalContact;
+import org.acme.schooltimetabling.domain.Proposal;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.StaffMember;
+import org.acme.schooltimetabling.domain.Timetable;
+
+// Generates unsolved timetables of any size from TimetableGeneratorParameters.
+// Every random choice comes from the seed and every ID is derived from a counter, so the output is reproducible.
+// write() streams the timetable as JSON, one session at a time, so the sessions never have to fit in memory.
+public final class TimetableGenerator {
+
+  private record Facts(List<BeamMode> beamModes,
+                       List<BeamtimeSlot> beamtimeSlots,
+                       List<Beamline> beamlines,
+                       List<LocalContact> localContacts,
+                       List<StaffMember> staffMembers) {
+  }
+
+  private TimetableGenerator() {
+  }
+
+  public static Timetable generate(TimetableGeneratorParameters parameters) {
+    var random = new Random(parameters.seed());
+    var facts = generateFacts(parameters);
+    var sessions = new ArrayList<Session>();
+    generateSessions(parameters, facts, random, sessions::add);
+    return new Timetable(parameters.name(),
+                         facts.beamtimeSlots(),
+                         facts.beamlines(),
+                         sessions,
+                         facts.localContacts(),
+                         facts.staffMembers());
+  }
+
+  // Writes the same JSON as the REST API does for the generated timetable, and leaves the stream open.
+  // One sequence writer keeps the serialization context, so that beamlines are written in full once and by ID after.
+  public static void write(TimetableGeneratorParameters parameters, ObjectMapper objectMapper,
+                           OutputStream outputStream) throws IOException {
+    var random = new Random(parameters.seed());
+    var facts = generateFacts(parameters);
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)
+                                               .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+         SequenceWriter sequenceWriter = objectMapper.writer().writeValues(generator)) {
+      generator.writeStartObject();
+      generator.writeStringField("name", parameters.name());
+      writeArray(generator, sequenceWriter, "beamtimeSlots", facts.beamtimeSlots());
+      writeArray(generator, sequenceWriter, "beamlines", facts.beamlines());
+      writeArray(generator, sequenceWriter, "localContacts", facts.localContacts());
+      writeArray(generator, sequenceWriter, "staffMembers", facts.staffMembers());
+      generator.writeArrayFieldStart("sessions");
+      try {
+        generateSessions(parameters, facts, random, session -> {
+          try {
+            sequenceWriter.write(session);
+          } catch (IOException e) {
+            throw new GeneratorWriteException(e);
+          }
+        });
+      } catch (GeneratorWriteException e) {
+        throw e.getCause();
+      }
+      generator.writeEndArray();
+      generator.writeNullField("score");
+      generator.writeNullField("solverStatus");
+      generator.writeEndObject();
+    }
+  }
+
+  private static void writeArray(JsonGenerator generator, SequenceWriter sequenceWriter, String fieldName,
+                                 List<?> values) throws IOException {
+    generator.writeArrayFieldStart(fieldName);
+    for (Object value : values) {
+      sequenceWriter.write(value);
+    }
+    generator.writeEndArray();
+  }
+
+  private static Facts generateFacts(TimetableGeneratorParameters parameters) {
+    Map<String, BeamMode> beamModesByName = new LinkedHashMap<>();
+    for (String name : parameters.beamModePattern()) {
+      beamModesByName.computeIfAbsent(name, name_ -> {
+        var beamMode = new BeamMode(name_);
+        beamMode.setId("mode-%d".formatted(beamModesByName.size()));
+        return beamMode;
+      });
+    }
+    var beamtimeSlots = new ArrayList<BeamtimeSlot>(parameters.dayCount() * 24);
+    for (int day = 0; day < parameters.dayCount(); day++) {
+      var beamMode = beamModesByName.get(parameters.beamModePattern().get(day % parameters.beamModePattern().size()));
+      for (int hour = 0; hour < 24; hour++) {
+        beamtimeSlots.add(new BeamtimeSlot(parameters.runStart().plusDays(day), hour, beamMode));
+      }
+    }
+
+    var beamlines = new ArrayList<Beamline>(parameters.beamlineCount());
+    var staffMembers = new ArrayList<StaffMember>(parameters.beamlineCount() * parameters.staffMembersPerBeamline());
+    var localContacts = new ArrayList<LocalContact>(parameters.beamlineCount() * parameters.staffMembersPerBeamline());
+    for (int i = 0; i < parameters.beamlineCount(); i++) {
+      var beamline = new Beamline("BL%03d".formatted(i));
+      beamlines.add(beamline);
+      for (int j = 0; j < parameters.staffMembersPerBeamline(); j++) {
+        var staffMember = new StaffMember("%s-staff-%d".formatted(beamline.getName(), j));
+        staffMember.setId("%s-staff-%d".formatted(beamline.getId(), j));
+        staffMembers.add(staffMember);
+        var localContact = new LocalContact(beamline, staffMember);
+        localContact.setId("%s-lc-%d".formatted(beamline.getId(), j));
+        localContacts.add(localContact);
+      }
+    }
+    return new Facts(List.copyOf(beamModesByName.values()), beamtimeSlots, beamlines, localContacts, staffMembers);
+  }
+
+  private static void generateSessions(TimetableGeneratorParameters parameters, Facts facts, Random random,
+                                       Consumer<Session> sessionConsumer) {
+    var runStart = parameters.runStart();
+    var sessionIndex = 0;
+    for (int i = 0; i < parameters.proposalCount(); i++) {
+      var proposal = new Proposal("P-%06d".formatted(i), facts.beamModes().get(random.nextInt(facts.beamModes().size())));
+      if (random.nextDouble() < parameters.datePreferenceDensity()) {
+        var unacceptableStart = runStart.plusDays(random.nextInt(parameters.dayCount()));
+        var preferredStart = runStart.plusDays(random.nextInt(parameters.dayCount()));
+        proposal.setDatePreferences(List.of(
+            new DatePreference(unacceptableStart, unacceptableStart.plusDays(1L), false),
+            new DatePreference(preferredStart, preferredStart.plusDays(2L), true)));
+      }
+      var beamline = facts.beamlines().get(random.nextInt(facts.beamlines().size()));
+      var sessionCount = parameters.minSessionsPerProposal()
+          + random.nextInt(parameters.maxSessionsPerProposal() - parameters.minSessionsPerProposal() + 1);
+      for (int j = 0; j < sessionCount; j++) {
+        var session = new Session(proposal, beamline);
+        session.setId("S-%08d".formatted(sessionIndex++));
+        sessionConsumer.accept(session);
+      }
+    }
+  }
+
+  // Carries an IOException out of the session consumer
+  private static final class GeneratorWriteException extends UncheckedIOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private GeneratorWriteException(IOException cause) {
+      super(cause);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package org.acme.schooltimetabling.generator;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Size and shape of a generated timetable. The same parameters, seed included, always give the same timetable.
+// The beam mode pattern gives the beam mode of each day by name, repeated over the run.
+// The date preference density is the share of proposals with an unacceptable and a preferred period.
+public record TimetableGeneratorParameters(String name,
+                                           long seed,
+                                           LocalDate runStart,
+                                           int dayCount,
+                                           List<String> beamModePattern,
+                                           int beamlineCount,
+                                           int staffMembersPerBeamline,
+                                           int proposalCount,
+                                           int minSessionsPerProposal,
+                                           int maxSessionsPerProposal,
+                                           double datePreferenceDensity) {
+
+  public static final List<String> DEFAULT_BEAM_MODE_PATTERN = List.of("Single Bunch", "7/8 + 1 Filling 200mA");
+
+  public TimetableGeneratorParameters {
+    if (dayCount < 1 || beamlineCount < 1 || staffMembersPerBeamline < 1 || proposalCount < 0) {
+      throw new IllegalArgumentException("The day count (%d), beamline count (%d) and staff members per beamline (%d) must be positive, the proposal count (%d) must not be negative."
+                                             .formatted(dayCount, beamlineCount, staffMembersPerBeamline, proposalCount));
+    }
+    if (minSessionsPerProposal < 1 || maxSessionsPerProposal < minSessionsPerProposal) {
+      throw new IllegalArgumentException("The sessions per proposal (%d to %d) must be positive and in order."
+                                             .formatted(minSessionsPerProposal, maxSessionsPerProposal));
+    }
+    if (beamModePattern == null || beamModePattern.isEmpty()) {
+      throw new IllegalArgumentException("The beam mode pattern must not be empty.");
+    }
+    if (datePreferenceDensity < 0.0 || datePreferenceDensity > 1.0) {
+      throw new IllegalArgumentException("The date preference density (%s) must be between 0 and 1.".formatted(datePreferenceDensity));
+    }
+    beamModePattern = List.copyOf(beamModePattern);
+  }
+
+  // About the size of the demo data: 3 beamlines over 10 days
+  public static TimetableGeneratorParameters ofSize(String name, int beamlineCount, int dayCount, long seed) {
+    return new TimetableGeneratorParameters(name, seed, LocalDate.of(2024, 1, 1), dayCount, DEFAULT_BEAM_MODE_PATTERN,
+                                            beamlineCount, 3, 4 * beamlineCount * Math.max(1, dayCount / 10), 5, 40, 0.5);
+  }
+}
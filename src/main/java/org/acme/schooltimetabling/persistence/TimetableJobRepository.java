@@ -0,0 +1,313 @@
+package org.acme.schooltimetabling.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.acme.schooltimetabling.domain.Timetable;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Optional on-disk store of each job's latest solution, used to resume solving after a restart.
+// Every job has append-only segment files "<jobId>.<sequence>.seg" of framed records:
+// [int payload length][byte record type][int CRC32 of the payload][payload].
+// Each record holds a full solution, so only the last valid record matters: once a record is written to a new segment,
+// the older segments are deleted. A torn record at the end of a segment is ignored on load.
+// All writes happen on a single writer thread. Pending solutions of the same job are coalesced,
+// so a slow disk never stalls the best solution consumer.
+@Singleton
+public class TimetableJobRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimetableJobRepository.class);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES + Integer.BYTES;
+
+    private static final byte SOLVING = 0;
+    private static final byte FINISHED = 1;
+    private static final byte FAILED = 2;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maximumSegmentSize;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentMap<String, PendingRecord> pendingRecords = new ConcurrentHashMap<>();
+    private final ExecutorService writer;
+    // Only accessed by the writer thread
+    private final Map<String, Segment> openSegments = new HashMap<>();
+
+    @Inject
+    public TimetableJobRepository(ObjectMapper objectMapper,
+            @ConfigProperty(name = "timetable.persistence.enabled", defaultValue = "false") boolean enabled,
+            @ConfigProperty(name = "timetable.persistence.directory", defaultValue = "data/jobs") String directory,
+            @ConfigProperty(name = "timetable.persistence.maximum-segment-size",
+                    defaultValue = "67108864") long maximumSegmentSize) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.maximumSegmentSize = maximumSegmentSize;
+        this.objectMapper = objectMapper;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "timetable-job-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            try {
+                Files.createDirectories(this.directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed creating the job directory (" + directory + ").", e);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void saveSolving(String jobId, Timetable timetable) {
+        enqueue(jobId, new PendingRecord(SOLVING, timetable, null));
+    }
+
+    public void saveFinished(String jobId, Timetable timetable) {
+        enqueue(jobId, new PendingRecord(FINISHED, timetable, null));
+    }
+
+    public void saveFailed(String jobId, Throwable exception) {
+        enqueue(jobId, new PendingRecord(FAILED, null, String.valueOf(exception.getMessage())));
+    }
+
+    public void delete(String jobId) {
+        if (!enabled) {
+            return;
+        }
+        pendingRecords.remove(jobId);
+        writer.execute(() -> {
+            closeSegment(jobId);
+            segmentsOf(jobId).forEach(TimetableJobRepository::deleteQuietly);
+        });
+    }
+
+    private void enqueue(String jobId, PendingRecord record) {
+        if (!enabled) {
+            return;
+        }
+        // Only schedule a write if none is pending, the pending write then picks up the latest record
+        if (pendingRecords.put(jobId, record) == null) {
+            writer.execute(() -> write(jobId));
+        }
+    }
+
+    private void write(String jobId) {
+        PendingRecord record = pendingRecords.remove(jobId);
+        if (record == null) {
+            return;
+        }
+        try {
+            byte[] payload = record.type() == FAILED
+                    ? record.message().getBytes(StandardCharsets.UTF_8)
+                    : objectMapper.writeValueAsBytes(record.timetable());
+            append(jobId, record.type(), payload);
+            if (record.type() != SOLVING) {
+                closeSegment(jobId);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed persisting jobId ({}).", jobId, e);
+        }
+    }
+
+    private void append(String jobId, byte type, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(payload.length)
+                .put(type)
+                .putInt((int) crc.getValue())
+                .flip();
+
+        Segment segment = openSegments.get(jobId);
+        boolean rolled = false;
+        if (segment == null || segment.channel().size() + HEADER_SIZE + payload.length > maximumSegmentSize) {
+            long sequence = segment == null ? lastSequenceOf(jobId) + 1 : segment.sequence() + 1;
+            closeSegment(jobId);
+            segment = new Segment(sequence, FileChannel.open(segmentPath(jobId, sequence),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+            openSegments.put(jobId, segment);
+            rolled = true;
+        }
+        segment.channel().write(new ByteBuffer[] { header, ByteBuffer.wrap(payload) });
+        segment.channel().force(false);
+        if (rolled) {
+            // The new segment holds a complete solution, the older ones are obsolete
+            long sequence = segment.sequence();
+            segmentsOf(jobId).filter(path -> sequenceOf(path) < sequence)
+                    .forEach(TimetableJobRepository::deleteQuietly);
+        }
+    }
+
+    private void closeSegment(String jobId) {
+        Segment segment = openSegments.remove(jobId);
+        if (segment != null) {
+            try {
+                segment.channel().close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed closing the segment of jobId ({}).", jobId, e);
+            }
+        }
+    }
+
+    // Reads the last valid record of every stored job. Meant to be called once, at startup.
+    public List<StoredJob> loadAll() {
+        if (!enabled) {
+            return List.of();
+        }
+        Map<String, TreeMap<Long, Path>> segmentsByJobId = new HashMap<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .forEach(path -> segmentsByJobId.computeIfAbsent(jobIdOf(path), jobId -> new TreeMap<>())
+                            .put(sequenceOf(path), path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed listing the job directory (" + directory + ").", e);
+        }
+        List<StoredJob> storedJobs = new ArrayList<>(segmentsByJobId.size());
+        segmentsByJobId.forEach((jobId, segments) -> {
+            // Newest segment first, fall back to an older one if the newest has no complete record yet
+            for (Path segment : segments.descendingMap().values()) {
+                StoredJob storedJob = readLastRecord(jobId, segment);
+                if (storedJob != null) {
+                    storedJobs.add(storedJob);
+                    return;
+                }
+            }
+            LOGGER.warn("Ignoring jobId ({}) without any complete record.", jobId);
+        });
+        return storedJobs;
+    }
+
+    private StoredJob readLastRecord(String jobId, Path segment) {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+            int lastOffset = -1;
+            byte lastType = SOLVING;
+            int lastLength = 0;
+            while (buffer.remaining() >= HEADER_SIZE) {
+                int offset = buffer.position();
+                int length = buffer.getInt();
+                byte type = buffer.get();
+                int checksum = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    break;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(buffer.slice(buffer.position(), length));
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                buffer.position(buffer.position() + length);
+                lastOffset = offset + HEADER_SIZE;
+                lastType = type;
+                lastLength = length;
+            }
+            if (lastOffset < 0) {
+                return null;
+            }
+            byte[] payload = new byte[lastLength];
+            buffer.get(lastOffset, payload);
+            if (lastType == FAILED) {
+                return new StoredJob(jobId, null, true, new String(payload, StandardCharsets.UTF_8));
+            }
+            return new StoredJob(jobId, objectMapper.readValue(payload, Timetable.class), lastType == FINISHED, null);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed reading segment ({}) of jobId ({}).", segment, jobId, e);
+            return null;
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10L, TimeUnit.SECONDS)) {
+                LOGGER.warn("Pending job writes did not complete in time.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        openSegments.keySet().stream().toList().forEach(this::closeSegment);
+    }
+
+    private Path segmentPath(String jobId, long sequence) {
+        return directory.resolve(jobId + "." + sequence + SEGMENT_SUFFIX);
+    }
+
+    private Stream<Path> segmentsOf(String jobId) {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .filter(path -> jobIdOf(path).equals(jobId))
+                    .toList()
+                    .stream();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed listing the job directory (" + directory + ").", e);
+        }
+    }
+
+    private long lastSequenceOf(String jobId) {
+        return segmentsOf(jobId).mapToLong(TimetableJobRepository::sequenceOf)
+                .max()
+                .orElse(0L);
+    }
+
+    private static String jobIdOf(Path segment) {
+        String name = segment.getFileName().toString();
+        String withoutSuffix = name.substring(0, name.length() - SEGMENT_SUFFIX.length());
+        return withoutSuffix.substring(0, withoutSuffix.lastIndexOf('.'));
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        String withoutSuffix = name.substring(0, name.length() - SEGMENT_SUFFIX.length());
+        return Long.parseLong(withoutSuffix.substring(withoutSuffix.lastIndexOf('.') + 1));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.warn("Failed deleting ({}).", path, e);
+        }
+    }
+
+    public record StoredJob(String jobId, Timetable timetable, boolean finished, String failureMessage) {
+    }
+
+    private record PendingRecord(byte type, Timetable timetable, String message) {
+    }
+
+    private record Segment(long sequence, FileChannel channel) {
+    }
+}
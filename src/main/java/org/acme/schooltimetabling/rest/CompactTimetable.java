@@ -0,0 +1,165 @@
+package org.acme.schooltimetabling.rest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+
+import org.acme.schooltimetabling.domain.BeamMode;
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.DatePreference;
+import org.acme.schooltimetabling.domain.LocalContact;
+import org.acme.schooltimetabling.domain.Proposal;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.StaffMember;
+import org.acme.schooltimetabling.domain.Timetable;
+
+// Normalized representation of a timetable: every fact appears once, and is referred to by ID everywhere else.
+// Proposals have no ID of their own, they are referred to by their position in the proposals list.
+public record CompactTimetable(String name,
+        List<BeamModeEntry> beamModes,
+        List<BeamlineEntry> beamlines,
+        List<StaffMemberEntry> staffMembers,
+        List<LocalContactEntry> localContacts,
+        List<BeamtimeSlotEntry> beamtimeSlots,
+        List<ProposalEntry> proposals,
+        List<SessionEntry> sessions,
+        String score,
+        SolverStatus solverStatus) {
+
+    public record BeamModeEntry(String id, String name) {
+    }
+
+    public record BeamlineEntry(String id, String name) {
+    }
+
+    public record StaffMemberEntry(String id, String name, List<DatePreference> datePreferences) {
+    }
+
+    public record LocalContactEntry(String id, String beamline, String staffMember) {
+    }
+
+    public record BeamtimeSlotEntry(String id, LocalDate date, int hour, String beamMode) {
+    }
+
+    public record ProposalEntry(String finalNumber, String beamMode, List<DatePreference> datePreferences) {
+    }
+
+    public record SessionEntry(String id, int proposal, String beamline, String beamtimeSlot, String localContact) {
+    }
+
+    public static CompactTimetable of(Timetable timetable) {
+        Map<String, BeamModeEntry> beamModes = new LinkedHashMap<>();
+        List<BeamtimeSlotEntry> beamtimeSlots = new ArrayList<>(timetable.getBeamtimeSlots().size());
+        for (BeamtimeSlot beamtimeSlot : timetable.getBeamtimeSlots()) {
+            beamtimeSlots.add(new BeamtimeSlotEntry(beamtimeSlot.getId(), beamtimeSlot.getDate(), beamtimeSlot.getHour(),
+                    addBeamMode(beamModes, beamtimeSlot.getBeamMode())));
+        }
+        List<BeamlineEntry> beamlines = timetable.getBeamlines().stream()
+                .map(beamline -> new BeamlineEntry(beamline.getId(), beamline.getName()))
+                .toList();
+        // Without a staff member list, like in the timetables from before it, the local contacts tell the staff members
+        List<StaffMember> staffMemberList = Objects.requireNonNullElseGet(timetable.getStaffMembers(),
+                () -> timetable.getLocalContacts().stream().map(LocalContact::getStaffMember).distinct().toList());
+        List<StaffMemberEntry> staffMembers = staffMemberList.stream()
+                .map(staffMember -> new StaffMemberEntry(staffMember.getId(), staffMember.getName(),
+                        staffMember.getDatePreferences()))
+                .toList();
+        List<LocalContactEntry> localContacts = timetable.getLocalContacts().stream()
+                .map(localContact -> new LocalContactEntry(localContact.getId(), localContact.getBeamline().getId(),
+                        localContact.getStaffMember().getId()))
+                .toList();
+
+        Map<Proposal, Integer> proposalIndexes = new HashMap<>();
+        List<ProposalEntry> proposals = new ArrayList<>();
+        List<SessionEntry> sessions = new ArrayList<>(timetable.getSessions().size());
+        for (Session session : timetable.getSessions()) {
+            Proposal proposal = session.getProposal();
+            int proposalIndex = proposalIndexes.computeIfAbsent(proposal, proposal_ -> {
+                proposals.add(new ProposalEntry(proposal.getFinalNumber(), addBeamMode(beamModes, proposal.getBeamMode()),
+                        proposal.getDatePreferences()));
+                return proposals.size() - 1;
+            });
+            sessions.add(new SessionEntry(session.getId(), proposalIndex, session.getBeamline().getId(),
+                    session.getBeamtimeSlot() == null ? null : session.getBeamtimeSlot().getId(),
+                    session.getLocalContact() == null ? null : session.getLocalContact().getId()));
+        }
+        return new CompactTimetable(timetable.getName(), List.copyOf(beamModes.values()), beamlines, staffMembers,
+                localContacts, beamtimeSlots, proposals, sessions,
+                timetable.getScore() == null ? null : timetable.getScore().toString(), timetable.getSolverStatus());
+    }
+
+    private static String addBeamMode(Map<String, BeamModeEntry> beamModes, BeamMode beamMode) {
+        beamModes.computeIfAbsent(beamMode.getId(), id -> new BeamModeEntry(id, beamMode.getName()));
+        return beamMode.getId();
+    }
+
+    public Timetable toTimetable() {
+        Map<String, BeamMode> beamModesById = new HashMap<>();
+        for (BeamModeEntry entry : beamModes) {
+            BeamMode beamMode = new BeamMode();
+            beamMode.setId(entry.id());
+            beamMode.setName(entry.name());
+            beamModesById.put(entry.id(), beamMode);
+        }
+        Map<String, Beamline> beamlinesById = new LinkedHashMap<>();
+        for (BeamlineEntry entry : beamlines) {
+            Beamline beamline = new Beamline();
+            beamline.setId(entry.id());
+            beamline.setName(entry.name());
+            beamlinesById.put(entry.id(), beamline);
+        }
+        Map<String, StaffMember> staffMembersById = new LinkedHashMap<>();
+        for (StaffMemberEntry entry : staffMembers) {
+            StaffMember staffMember = new StaffMember();
+            staffMember.setId(entry.id());
+            staffMember.setName(entry.name());
+            staffMember.setDatePreferences(entry.datePreferences());
+            staffMembersById.put(entry.id(), staffMember);
+        }
+        Map<String, LocalContact> localContactsById = new LinkedHashMap<>();
+        for (LocalContactEntry entry : localContacts) {
+            LocalContact localContact = new LocalContact();
+            localContact.setId(entry.id());
+            localContact.setBeamline(beamlinesById.get(entry.beamline()));
+            localContact.setStaffMember(staffMembersById.get(entry.staffMember()));
+            localContactsById.put(entry.id(), localContact);
+        }
+        Map<String, BeamtimeSlot> beamtimeSlotsById = new LinkedHashMap<>();
+        for (BeamtimeSlotEntry entry : beamtimeSlots) {
+            BeamtimeSlot beamtimeSlot = new BeamtimeSlot();
+            beamtimeSlot.setId(entry.id());
+            beamtimeSlot.setDate(entry.date());
+            beamtimeSlot.setHour(entry.hour());
+            beamtimeSlot.setBeamMode(beamModesById.get(entry.beamMode()));
+            beamtimeSlotsById.put(entry.id(), beamtimeSlot);
+        }
+        List<Proposal> proposalList = proposals.stream()
+                .map(entry -> new Proposal(entry.finalNumber(), beamModesById.get(entry.beamMode()),
+                        entry.datePreferences()))
+                .toList();
+        List<Session> sessionList = new ArrayList<>(sessions.size());
+        for (SessionEntry entry : sessions) {
+            Session session = new Session();
+            session.setId(entry.id());
+            session.setProposal(proposalList.get(entry.proposal()));
+            session.setBeamline(beamlinesById.get(entry.beamline()));
+            session.setBeamtimeSlot(entry.beamtimeSlot() == null ? null : beamtimeSlotsById.get(entry.beamtimeSlot()));
+            session.setLocalContact(entry.localContact() == null ? null : localContactsById.get(entry.localContact()));
+            sessionList.add(session);
+        }
+        Timetable timetable = new Timetable(name, new ArrayList<>(beamtimeSlotsById.values()),
+                new ArrayList<>(beamlinesById.values()), sessionList, new ArrayList<>(localContactsById.values()),
+                new ArrayList<>(staffMembersById.values()));
+        timetable.setScore(score == null ? null : HardSoftScore.parseScore(score));
+        timetable.setSolverStatus(solverStatus);
+        return timetable;
+    }
+}
@@ -0,0 +1,93 @@
+package org.acme.schooltimetabling.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import org.acme.schooltimetabling.domain.Timetable;
+
+// Reads and writes timetables in their compact representation, as JSON, Smile or CBOR.
+// Plain application/json keeps the default, fully embedded representation.
+@Provider
+@Produces({ TimetableMediaType.COMPACT_JSON, TimetableMediaType.SMILE, TimetableMediaType.CBOR })
+@Consumes({ TimetableMediaType.COMPACT_JSON, TimetableMediaType.SMILE, TimetableMediaType.CBOR })
+public class CompactTimetableProvider implements MessageBodyReader<Timetable>, MessageBodyWriter<Timetable> {
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final ObjectMapper cborMapper;
+
+    // Workaround to make Quarkus CDI happy. Do not use.
+    public CompactTimetableProvider() {
+        this(new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Inject
+    public CompactTimetableProvider(ObjectMapper objectMapper) {
+        this.jsonMapper = objectMapper;
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+        this.cborMapper = objectMapper.copyWith(new CBORFactory());
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == Timetable.class;
+    }
+
+    @Override
+    public Timetable readFrom(Class<Timetable> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        CompactTimetable compactTimetable = mapperFor(mediaType).readerFor(CompactTimetable.class)
+                .without(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+                .readValue(entityStream);
+        try {
+            return compactTimetable.toTimetable();
+        } catch (IllegalArgumentException e) {
+            // Like the JSON body reader does for a timetable it can not build
+            throw new WebApplicationException(e, Response.Status.BAD_REQUEST);
+        }
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == Timetable.class;
+    }
+
+    @Override
+    public void writeTo(Timetable timetable, Class<?> type, Type genericType, Annotation[] annotations,
+            MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+            throws IOException {
+        mapperFor(mediaType).writerFor(CompactTimetable.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValue(entityStream, CompactTimetable.of(timetable));
+    }
+
+    private ObjectMapper mapperFor(MediaType mediaType) {
+        if (mediaType.isCompatible(TimetableMediaType.SMILE_TYPE)) {
+            return smileMapper;
+        }
+        if (mediaType.isCompatible(TimetableMediaType.CBOR_TYPE)) {
+            return cborMapper;
+        }
+        return jsonMapper;
+    }
+}
@@ -0,0 +1,5 @@
+package org.acme.schooltimetabling.rest;
+
+// A new local contact of a beamline, for an existing staff member by ID or a new one by name
+public record LocalContactAddition(String beamline, String staffMember, String staffMemberName) {
+}
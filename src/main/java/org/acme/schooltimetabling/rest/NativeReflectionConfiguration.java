@@ -0,0 +1,24 @@
+package org.acme.schooltimetabling.rest;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import org.acme.schooltimetabling.rest.exception.ErrorInfo;
+
+// Types Jackson serializes in a native image that are no endpoint's parameter or return type, so Quarkus does not
+// register them by itself: the compact timetable of CompactTimetableProvider and the error body of the exception mapper.
+// The domain and the classes of solverConfig.xml are registered by the Timefold extension.
+@RegisterForReflection(targets = {
+        CompactTimetable.class,
+        CompactTimetable.BeamModeEntry.class,
+        CompactTimetable.BeamlineEntry.class,
+        CompactTimetable.StaffMemberEntry.class,
+        CompactTimetable.LocalContactEntry.class,
+        CompactTimetable.BeamtimeSlotEntry.class,
+        CompactTimetable.ProposalEntry.class,
+        CompactTimetable.SessionEntry.class,
+        ErrorInfo.class })
+final class NativeReflectionConfiguration {
+
+    private NativeReflectionConfiguration() {
+    }
+}
@@ -0,0 +1,111 @@
+package org.acme.schooltimetabling.rest;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+
+import org.acme.schooltimetabling.domain.Timetable;
+import org.acme.schooltimetabling.solver.PortfolioStrategy;
+
+// The solvers of a portfolio job, one per strategy, with the best score each of them reached and the overall best
+// solution. The solvers report from their own threads and the culling runs on a scheduler thread, hence synchronized.
+final class PortfolioRace {
+
+    private final String jobId;
+    private final Set<PortfolioStrategy> strategies;
+    private final Set<PortfolioStrategy> running;
+    private final Set<PortfolioStrategy> unfinished;
+    private final Map<PortfolioStrategy, HardSoftScore> bestScores = new EnumMap<>(PortfolioStrategy.class);
+    private final Map<PortfolioStrategy, Long> lastImprovementNanos = new EnumMap<>(PortfolioStrategy.class);
+    private Timetable bestSolution;
+    private PortfolioStrategy leader;
+    private Throwable lastException;
+
+    PortfolioRace(String jobId, Collection<PortfolioStrategy> strategies) {
+        this.jobId = jobId;
+        this.strategies = EnumSet.copyOf(strategies);
+        this.running = EnumSet.copyOf(strategies);
+        this.unfinished = EnumSet.copyOf(strategies);
+    }
+
+    Set<PortfolioStrategy> strategies() {
+        return strategies;
+    }
+
+    String problemId(PortfolioStrategy strategy) {
+        return jobId + "/portfolio-" + strategy.name().toLowerCase();
+    }
+
+    // True if the solution beats the overall best solution, which it then replaces
+    synchronized boolean offer(PortfolioStrategy strategy, Timetable solution) {
+        HardSoftScore score = solution.getScore();
+        HardSoftScore bestScore = bestScores.get(strategy);
+        if (bestScore == null || score.compareTo(bestScore) > 0) {
+            bestScores.put(strategy, score);
+            lastImprovementNanos.put(strategy, System.nanoTime());
+        }
+        if (bestSolution != null && score.compareTo(bestSolution.getScore()) <= 0) {
+            return false;
+        }
+        bestSolution = solution;
+        leader = strategy;
+        return true;
+    }
+
+    // True if it was the last solver to finish
+    synchronized boolean finish(PortfolioStrategy strategy, Throwable exception) {
+        running.remove(strategy);
+        unfinished.remove(strategy);
+        if (exception != null) {
+            lastException = exception;
+        }
+        return unfinished.isEmpty();
+    }
+
+    // Stops counting the running solver with the worst best score as running and returns it, or null if only one runs.
+    // Of equal scores, the one that improved least recently loses. A solver without any score yet is still
+    // constructing and loses to all others, unless no solver has a score yet.
+    synchronized PortfolioStrategy cullWorst() {
+        if (running.size() <= 1 || running.stream().noneMatch(bestScores::containsKey)) {
+            return null;
+        }
+        PortfolioStrategy worst = null;
+        for (PortfolioStrategy strategy : running) {
+            if (worst == null || isWorse(strategy, worst)) {
+                worst = strategy;
+            }
+        }
+        running.remove(worst);
+        return worst;
+    }
+
+    private boolean isWorse(PortfolioStrategy strategy, PortfolioStrategy other) {
+        HardSoftScore score = bestScores.get(strategy);
+        HardSoftScore otherScore = bestScores.get(other);
+        if (score == null || otherScore == null) {
+            return score == null && otherScore != null;
+        }
+        int comparison = score.compareTo(otherScore);
+        return comparison < 0 || (comparison == 0 && lastImprovementNanos.get(strategy) < lastImprovementNanos.get(other));
+    }
+
+    synchronized HardSoftScore bestScore(PortfolioStrategy strategy) {
+        return bestScores.get(strategy);
+    }
+
+    synchronized Timetable bestSolution() {
+        return bestSolution;
+    }
+
+    synchronized PortfolioStrategy leader() {
+        return leader;
+    }
+
+    synchronized Throwable lastException() {
+        return lastException;
+    }
+}
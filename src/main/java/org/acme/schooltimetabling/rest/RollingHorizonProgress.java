@@ -0,0 +1,39 @@
+package org.acme.schooltimetabling.rest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+
+import org.acme.schooltimetabling.solver.RollingHorizon.Window;
+
+// Progress of a rolling horizon job, one entry per window in solving order
+public record RollingHorizonProgress(List<WindowProgress> windows) {
+
+    public enum WindowStatus {
+        PENDING,
+        SOLVING,
+        SOLVED
+    }
+
+    // The score only covers the window's own sessions, pinned ones included
+    public record WindowProgress(int index, LocalDate from, LocalDate committedUntil, LocalDate until,
+            WindowStatus status, int sessionCount, HardSoftScore score) {
+    }
+
+    public static RollingHorizonProgress of(List<Window> windows) {
+        return new RollingHorizonProgress(windows.stream()
+                .map(window -> new WindowProgress(window.index(), window.from(), window.committedUntil(), window.until(),
+                        WindowStatus.PENDING, 0, null))
+                .toList());
+    }
+
+    public RollingHorizonProgress withWindow(int index, WindowStatus status, int sessionCount, HardSoftScore score) {
+        List<WindowProgress> windows = new ArrayList<>(this.windows);
+        WindowProgress window = windows.get(index);
+        windows.set(index, new WindowProgress(index, window.from(), window.committedUntil(), window.until(), status,
+                sessionCount, score));
+        return new RollingHorizonProgress(List.copyOf(windows));
+    }
+}
@@ -0,0 +1,5 @@
+package org.acme.schooltimetabling.rest;
+
+// New sessions of an existing proposal, on a given beamline
+public record SessionAddition(String proposal, String beamline, int count) {
+}
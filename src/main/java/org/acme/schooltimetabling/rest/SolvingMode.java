@@ -0,0 +1,12 @@
+package org.acme.schooltimetabling.rest;
+
+public enum SolvingMode {
+    // One solver on the whole timetable
+    DEFAULT,
+    // One solver per beamline in parallel, then a short polish of the merged timetable
+    BEAMLINE_PARTITIONED,
+    // One solver per window of days, one window after the other, with the solved windows pinned
+    ROLLING_HORIZON,
+    // Differently configured solvers racing on the whole timetable, the worst ones terminated along the way
+    PORTFOLIO
+}
@@ -0,0 +1,158 @@
+package org.acme.schooltimetabling.rest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.acme.schooltimetabling.rest.exception.TimetableAdmissionException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+// Decides which jobs may solve: at most a given number of solvers at once, and per client, the others wait in a bounded
+// queue. A job is charged for each solver it runs at the same time, like a portfolio job for each of its strategies.
+// A job charged more than a limit is admitted once nothing else is charged against that limit.
+// The queue is ordered by priority, highest first, then by submission. A job of a client at its cap is skipped,
+// so that it does not hold back the jobs of other clients. A job that does not fit waits for the jobs before it.
+// The methods return the jobs admitted by the call, for the caller to start outside of the lock.
+@Singleton
+public class TimetableAdmissionQueue {
+
+    public record Ticket(String jobId, String clientId, int priority, Duration timeBudget, SolvingMode mode,
+            int solverCount, long sequence) {
+    }
+
+    private static final Comparator<Ticket> ADMISSION_ORDER = Comparator.comparingInt(Ticket::priority).reversed()
+            .thenComparingLong(Ticket::sequence);
+
+    private final int maximumQueued;
+    private final int maximumQueuedPerClient;
+    private final int maximumSolving;
+    private final int maximumSolvingPerClient;
+    private final Duration retryAfter;
+
+    private final PriorityQueue<Ticket> queue = new PriorityQueue<>(ADMISSION_ORDER);
+    private final Map<String, Ticket> solvingByJobId = new HashMap<>();
+    private final Map<String, Integer> queuedCountByClientId = new HashMap<>();
+    private final Map<String, Integer> solvingCountByClientId = new HashMap<>();
+    private int solvingCount = 0;
+    private long nextSequence = 0L;
+
+    @Inject
+    public TimetableAdmissionQueue(
+            @ConfigProperty(name = "timetable.admission.maximum-queued", defaultValue = "100") int maximumQueued,
+            @ConfigProperty(name = "timetable.admission.maximum-queued-per-client",
+                    defaultValue = "20") int maximumQueuedPerClient,
+            @ConfigProperty(name = "timetable.admission.maximum-solving", defaultValue = "4") int maximumSolving,
+            @ConfigProperty(name = "timetable.admission.maximum-solving-per-client",
+                    defaultValue = "2") int maximumSolvingPerClient,
+            @ConfigProperty(name = "timetable.admission.retry-after", defaultValue = "30s") Duration retryAfter) {
+        this.maximumQueued = maximumQueued;
+        this.maximumQueuedPerClient = maximumQueuedPerClient;
+        this.maximumSolving = maximumSolving;
+        this.maximumSolvingPerClient = maximumSolvingPerClient;
+        this.retryAfter = retryAfter;
+    }
+
+    // Throws a 429 if the queue, or the client's share of it, is full. Resumed jobs are admitted regardless of the limits.
+    public synchronized List<Ticket> submit(String jobId, String clientId, int priority, Duration timeBudget,
+            SolvingMode mode, int solverCount, boolean enforceLimits) {
+        if (enforceLimits && (queue.size() >= maximumQueued
+                || queuedCountByClientId.getOrDefault(clientId, 0) >= maximumQueuedPerClient)) {
+            throw new TimetableAdmissionException(jobId, retryAfter,
+                    "The solve queue is full for client (%s), retry later.".formatted(clientId));
+        }
+        Ticket ticket = new Ticket(jobId, clientId, priority, timeBudget, mode, solverCount, nextSequence++);
+        if (!enforceLimits) {
+            solve(ticket);
+            return List.of(ticket);
+        }
+        queue.add(ticket);
+        queuedCountByClientId.merge(clientId, 1, Integer::sum);
+        return admit();
+    }
+
+    // Called when a job stops solving, or is terminated or evicted while queued. Does nothing for an unknown job.
+    public synchronized List<Ticket> release(String jobId) {
+        Ticket ticket = solvingByJobId.remove(jobId);
+        if (ticket != null) {
+            solvingCount -= ticket.solverCount();
+            decrement(solvingCountByClientId, ticket.clientId(), ticket.solverCount());
+            return admit();
+        }
+        for (Ticket queued : queue) {
+            if (queued.jobId().equals(jobId)) {
+                queue.remove(queued);
+                decrement(queuedCountByClientId, queued.clientId(), 1);
+                break;
+            }
+        }
+        return List.of();
+    }
+
+    public synchronized boolean isQueued(String jobId) {
+        return queue.stream().anyMatch(ticket -> ticket.jobId().equals(jobId));
+    }
+
+    public synchronized int getSolvingCount() {
+        return solvingByJobId.size();
+    }
+
+    public synchronized int getQueuedCount() {
+        return queue.size();
+    }
+
+    // 1 for the next job to be admitted, null if the job is not queued
+    public synchronized Integer getQueuePosition(String jobId) {
+        List<Ticket> tickets = new ArrayList<>(queue);
+        tickets.sort(ADMISSION_ORDER);
+        for (int i = 0; i < tickets.size(); i++) {
+            if (tickets.get(i).jobId().equals(jobId)) {
+                return i + 1;
+            }
+        }
+        return null;
+    }
+
+    private List<Ticket> admit() {
+        if (solvingCount >= maximumSolving || queue.isEmpty()) {
+            return List.of();
+        }
+        List<Ticket> tickets = new ArrayList<>(queue);
+        tickets.sort(ADMISSION_ORDER);
+        List<Ticket> admitted = new ArrayList<>();
+        for (Ticket ticket : tickets) {
+            if (!fits(solvingCount, ticket.solverCount(), maximumSolving)) {
+                break;
+            }
+            if (!fits(solvingCountByClientId.getOrDefault(ticket.clientId(), 0), ticket.solverCount(),
+                    maximumSolvingPerClient)) {
+                continue;
+            }
+            queue.remove(ticket);
+            decrement(queuedCountByClientId, ticket.clientId(), 1);
+            solve(ticket);
+            admitted.add(ticket);
+        }
+        return admitted;
+    }
+
+    private static boolean fits(int solvingCount, int solverCount, int maximumSolving) {
+        return solvingCount == 0 || solvingCount + solverCount <= maximumSolving;
+    }
+
+    private static void decrement(Map<String, Integer> countByClientId, String clientId, int amount) {
+        countByClientId.computeIfPresent(clientId, (clientId_, count) -> count <= amount ? null : count - amount);
+    }
+
+    private void solve(Ticket ticket) {
+        solvingByJobId.put(ticket.jobId(), ticket);
+        solvingCount += ticket.solverCount();
+        solvingCountByClientId.merge(ticket.clientId(), ticket.solverCount(), Integer::sum);
+    }
+}
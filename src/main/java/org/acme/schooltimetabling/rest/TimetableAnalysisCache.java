@@ -0,0 +1,137 @@
+package org.acme.schooltimetabling.rest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import ai.timefold.solver.core.api.score.analysis.ScoreAnalysis;
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.ScoreAnalysisFetchPolicy;
+import ai.timefold.solver.core.api.solver.SolutionManager;
+import ai.timefold.solver.core.api.solver.SolutionUpdatePolicy;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.DatePreference;
+import org.acme.schooltimetabling.domain.LocalContact;
+import org.acme.schooltimetabling.domain.Proposal;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.StaffMember;
+import org.acme.schooltimetabling.domain.Timetable;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+// Score analyses of recently analyzed timetables, keyed by a content hash of the session assignments and of the facts
+// the constraints read. Clicking analyze again on the same timetable, or on a job whose best solution did not change,
+// returns the earlier analysis instead of recomputing every constraint match.
+// Concurrent requests for the same timetable wait for a single analysis. The analysis runs on Caffeine's executor and
+// the requests wait on its future, as waiting inside the cache's map lock would pin their virtual threads.
+@Singleton
+public class TimetableAnalysisCache {
+
+    private record Key(String contentHash, ScoreAnalysisFetchPolicy fetchPolicy) {
+    }
+
+    private final SolutionManager<Timetable, HardSoftScore> solutionManager;
+    private final AsyncCache<Key, ScoreAnalysis<HardSoftScore>> analysisByKey;
+
+    @Inject
+    public TimetableAnalysisCache(SolutionManager<Timetable, HardSoftScore> solutionManager,
+            @ConfigProperty(name = "timetable.analysis-cache.maximum-size", defaultValue = "32") long maximumSize,
+            @ConfigProperty(name = "timetable.analysis-cache.time-to-idle", defaultValue = "10m") Duration timeToIdle) {
+        this.solutionManager = solutionManager;
+        this.analysisByKey = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(timeToIdle)
+                .buildAsync();
+    }
+
+    // Like an uncached analysis, the score of the submitted timetable is updated when it is analyzed
+    public ScoreAnalysis<HardSoftScore> analyze(Timetable timetable, ScoreAnalysisFetchPolicy fetchPolicy) {
+        return analyze(timetable, fetchPolicy, SolutionUpdatePolicy.UPDATE_ALL);
+    }
+
+    // Leaves the best solution of a job as it is, as other requests may be reading it
+    public ScoreAnalysis<HardSoftScore> analyzeBestSolution(Timetable bestSolution, ScoreAnalysisFetchPolicy fetchPolicy) {
+        return analyze(bestSolution, fetchPolicy, SolutionUpdatePolicy.NO_UPDATE);
+    }
+
+    private ScoreAnalysis<HardSoftScore> analyze(Timetable timetable, ScoreAnalysisFetchPolicy fetchPolicy,
+            SolutionUpdatePolicy solutionUpdatePolicy) {
+        ScoreAnalysisFetchPolicy policy = fetchPolicy == null ? ScoreAnalysisFetchPolicy.FETCH_ALL : fetchPolicy;
+        try {
+            return analysisByKey.get(new Key(contentHash(timetable), policy),
+                    key -> solutionManager.analyze(timetable, policy, solutionUpdatePolicy)).join();
+        } catch (CompletionException e) {
+            // A failed analysis is not cached, the next request tries again
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // The name and the JSON only fields are left out, they do not change the score
+    static String contentHash(Timetable timetable) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+        // In the order of their first session, so that equal timetables give equal hashes
+        Map<String, Proposal> proposalsByFinalNumber = new LinkedHashMap<>();
+        for (Session session : timetable.getSessions()) {
+            update(digest, session.getId(), session.getProposal().getFinalNumber(), session.getBeamline().getId(),
+                    session.getBeamtimeSlot() == null ? null : session.getBeamtimeSlot().getId(),
+                    session.getLocalContact() == null ? null : session.getLocalContact().getId());
+            proposalsByFinalNumber.putIfAbsent(session.getProposal().getFinalNumber(), session.getProposal());
+        }
+        for (Proposal proposal : proposalsByFinalNumber.values()) {
+            update(digest, proposal.getFinalNumber(), Objects.toString(proposal.getBeamMode()));
+            update(digest, proposal.getDatePreferences());
+        }
+        for (BeamtimeSlot beamtimeSlot : timetable.getBeamtimeSlots()) {
+            update(digest, beamtimeSlot.getId(), Objects.toString(beamtimeSlot.getBeamMode()));
+        }
+        for (LocalContact localContact : timetable.getLocalContacts()) {
+            update(digest, localContact.getId(), localContact.getBeamline().getId(), localContact.getStaffMember().getId());
+        }
+        for (StaffMember staffMember : Objects.requireNonNullElse(timetable.getStaffMembers(), List.<StaffMember>of())) {
+            update(digest, staffMember.getId());
+            update(digest, staffMember.getDatePreferences());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, List<DatePreference> datePreferences) {
+        if (datePreferences == null) {
+            return;
+        }
+        for (DatePreference datePreference : datePreferences) {
+            update(digest, Objects.toString(datePreference.getStart()), Objects.toString(datePreference.getEndIncluded()),
+                    Boolean.toString(datePreference.isAcceptable()));
+        }
+    }
+
+    // Each value is terminated, so that shifting characters between values gives another hash
+    private static void update(MessageDigest digest, String... values) {
+        for (String value : values) {
+            if (value != null) {
+                digest.update(value.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) (value == null ? 1 : 0));
+        }
+    }
+}
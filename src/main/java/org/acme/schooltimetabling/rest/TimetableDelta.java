@@ -0,0 +1,31 @@
+package org.acme.schooltimetabling.rest;
+
+import java.util.List;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.LocalContact;
+import org.acme.schooltimetabling.domain.Session;
+
+// Session assignments that changed since a given solution version of a job, or all of them when complete.
+// Slots and local contacts are referred to by ID, the client already has them from the full timetable.
+public record TimetableDelta(long version, boolean complete, HardSoftScore score, SolverStatus solverStatus,
+        List<SessionAssignment> sessions) {
+
+    public record SessionAssignment(String id, String beamtimeSlot, String localContact) {
+
+        static SessionAssignment of(Session session) {
+            BeamtimeSlot beamtimeSlot = session.getBeamtimeSlot();
+            LocalContact localContact = session.getLocalContact();
+            return new SessionAssignment(session.getId(),
+                    beamtimeSlot == null ? null : beamtimeSlot.getId(),
+                    localContact == null ? null : localContact.getId());
+        }
+    }
+
+    static TimetableDelta ofStatus(long version, SolverStatus solverStatus) {
+        return new TimetableDelta(version, false, null, solverStatus, List.of());
+    }
+}
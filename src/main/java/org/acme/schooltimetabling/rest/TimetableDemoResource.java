@@ -6,11 +6,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
 
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 
 import org.acme.schooltimetabling.domain.BeamMode;
 import org.acme.schooltimetabling.domain.DatePreference;
@@ -21,6 +30,8 @@ import org.acme.schooltimetabling.domain.Beamline;
 import org.acme.schooltimetabling.domain.BeamtimeSlot;
 import org.acme.schooltimetabling.domain.StaffMember;
 import org.acme.schooltimetabling.domain.Timetable;
+import org.acme.schooltimetabling.generator.TimetableGenerator;
+import org.acme.schooltimetabling.generator.TimetableGeneratorParameters;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -30,15 +41,40 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+// Generated timetables are streamed from a virtual thread, like the bodies of TimetableResource
 @Tag(name = "Demo data", description = "Timefold-provided demo school timetable data.")
 @Path("demo-data")
+@RunOnVirtualThread
 public class TimetableDemoResource {
 
   public enum DemoData {
+    // The hand-made demo timetable: 3 beamlines over 10 days
     SMALL,
+    // A generated timetable: 6 beamlines over 28 days
     LARGE
   }
 
+  // Upper bounds of a generated timetable, so that one request cannot keep the server generating for hours.
+  // The largest solver benchmark dataset, 24 beamlines over 112 days, is well within them.
+  static final int MAX_GENERATED_DAYS = 366;
+  static final int MAX_GENERATED_BEAMLINES = 100;
+  static final int MAX_GENERATED_STAFF_MEMBERS_PER_BEAMLINE = 50;
+  static final int MAX_GENERATED_PROPOSALS = 10_000;
+  static final int MAX_GENERATED_SESSIONS_PER_PROPOSAL = 1_000;
+  static final long MAX_GENERATED_SESSIONS = 1_000_000L;
+
+  private final ObjectMapper objectMapper;
+
+  // Workaround to make Quarkus CDI happy. Do not use.
+  public TimetableDemoResource() {
+    this.objectMapper = null;
+  }
+
+  @Inject
+  public TimetableDemoResource(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
   @APIResponses(value = {
       @APIResponse(responseCode = "200", description = "List of demo data represented as IDs.",
                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
@@ -55,9 +91,14 @@ public class TimetableDemoResource {
                                       schema = @Schema(implementation = Timetable.class))) })
   @Operation(summary = "Find an unsolved demo timetable by ID.")
   @GET
+  @Produces({ MediaType.APPLICATION_JSON, TimetableMediaType.COMPACT_JSON, TimetableMediaType.SMILE, TimetableMediaType.CBOR })
   @Path("/{demoDataId}")
   public Response generate(@Parameter(description = "Unique identifier of the demo data.",
                                       required = true) @PathParam("demoDataId") DemoData demoData) {
+    if (demoData == DemoData.LARGE) {
+      return Response.ok(TimetableGenerator.generate(TimetableGeneratorParameters.ofSize(demoData.name(), 6, 28, 0L)))
+                     .build();
+    }
     var localContactCandidates = new ArrayList<LocalContact>();
 
     var paul = new StaffMember("Paul");
@@ -178,6 +219,53 @@ public class TimetableDemoResource {
   }
 
 
+  @APIResponses(value = {
+      @APIResponse(responseCode = "200", description = "Unsolved generated timetable, the same for the same parameters.",
+                   content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                                      schema = @Schema(implementation = Timetable.class))) })
+  @Operation(summary = "Generate an unsolved timetable of any size, for load and scale tests. It is streamed, so even very large timetables are not held in memory.")
+  @GET
+  @Produces(MediaType.APPLICATION_JSON)
+  @Path("/generated")
+  public StreamingOutput generateOfSize(
+      @Parameter(description = "Random seed.") @QueryParam("seed") @DefaultValue("0") long seed,
+      @Parameter(description = "First day of the run.") @QueryParam("runStart") @DefaultValue("2024-01-01") String runStart,
+      @Parameter(description = "Number of days.") @QueryParam("days") @DefaultValue("10") int dayCount,
+      @Parameter(description = "Beam mode names, one per day, repeated over the run.") @QueryParam("beamMode") List<String> beamModePattern,
+      @Parameter(description = "Number of beamlines.") @QueryParam("beamlines") @DefaultValue("3") int beamlineCount,
+      @Parameter(description = "Staff members per beamline, each a local contact of the beamline.") @QueryParam("staffMembersPerBeamline") @DefaultValue("3") int staffMembersPerBeamline,
+      @Parameter(description = "Number of proposals.") @QueryParam("proposals") @DefaultValue("12") int proposalCount,
+      @Parameter(description = "Minimum number of sessions per proposal.") @QueryParam("minSessionsPerProposal") @DefaultValue("5") int minSessionsPerProposal,
+      @Parameter(description = "Maximum number of sessions per proposal.") @QueryParam("maxSessionsPerProposal") @DefaultValue("40") int maxSessionsPerProposal,
+      @Parameter(description = "Share of proposals with date preferences, between 0 and 1.") @QueryParam("datePreferenceDensity") @DefaultValue("0.5") double datePreferenceDensity) {
+    checkAtMost("days", dayCount, MAX_GENERATED_DAYS);
+    checkAtMost("beamMode count", beamModePattern == null ? 0 : beamModePattern.size(), MAX_GENERATED_DAYS);
+    checkAtMost("beamlines", beamlineCount, MAX_GENERATED_BEAMLINES);
+    checkAtMost("staffMembersPerBeamline", staffMembersPerBeamline, MAX_GENERATED_STAFF_MEMBERS_PER_BEAMLINE);
+    checkAtMost("proposals", proposalCount, MAX_GENERATED_PROPOSALS);
+    checkAtMost("maxSessionsPerProposal", maxSessionsPerProposal, MAX_GENERATED_SESSIONS_PER_PROPOSAL);
+    checkAtMost("proposals x maxSessionsPerProposal", (long) proposalCount * maxSessionsPerProposal,
+                MAX_GENERATED_SESSIONS);
+    TimetableGeneratorParameters parameters;
+    try {
+      parameters = new TimetableGeneratorParameters("GENERATED-" + seed, seed, LocalDate.parse(runStart), dayCount,
+                                                    beamModePattern == null || beamModePattern.isEmpty()
+                                                        ? TimetableGeneratorParameters.DEFAULT_BEAM_MODE_PATTERN
+                                                        : beamModePattern,
+                                                    beamlineCount, staffMembersPerBeamline, proposalCount,
+                                                    minSessionsPerProposal, maxSessionsPerProposal, datePreferenceDensity);
+    } catch (RuntimeException e) {
+      throw new BadRequestException(e.getMessage(), e);
+    }
+    return outputStream -> TimetableGenerator.write(parameters, objectMapper, outputStream);
+  }
+
+  private static void checkAtMost(String name, long value, long maximum) {
+    if (value > maximum) {
+      throw new BadRequestException("The %s (%d) must be at most %d.".formatted(name, value, maximum));
+    }
+  }
+
   private record RequestedBeamline(Beamline beamline, int numberOfSlots) {
 
   }
@@ -0,0 +1,104 @@
+package org.acme.schooltimetabling.rest;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseBroadcaster;
+import jakarta.ws.rs.sse.SseEventSink;
+
+import ai.timefold.solver.core.api.solver.SolverStatus;
+
+// Pushes the best solution deltas of each job to its Server-Sent Events subscribers.
+// Deltas are only computed for jobs that have subscribers.
+@Singleton
+public class TimetableEventBroadcaster {
+
+    static final String EVENT_NAME = "timetable";
+
+    private final ConcurrentMap<String, JobStream> streamByJobId = new ConcurrentHashMap<>();
+    private volatile Sse sse;
+
+    // The snapshot is taken under the same lock as the deltas are published, so that no delta falls between the
+    // snapshot and the registration. The delta of the snapshot's version may still follow, its assignments are the same.
+    public void subscribe(String jobId, Sse sse, SseEventSink eventSink, Supplier<TimetableDelta> snapshotSupplier) {
+        this.sse = sse;
+        JobStream stream = streamByJobId.computeIfAbsent(jobId, jobId_ -> new JobStream());
+        stream.lock.lock();
+        try {
+            TimetableDelta snapshot = snapshotSupplier.get();
+            if (stream.completed || snapshot.solverStatus() == SolverStatus.NOT_SOLVING) {
+                if (stream.broadcaster == null && !stream.completed) {
+                    // Nothing was registered yet, a subscriber still waiting for the lock sees the stream as completed
+                    stream.completed = true;
+                    streamByJobId.remove(jobId, stream);
+                }
+                eventSink.send(toEvent(sse, snapshot)).whenComplete((result, exception) -> eventSink.close());
+                return;
+            }
+            if (stream.broadcaster == null) {
+                stream.broadcaster = sse.newBroadcaster();
+            }
+            eventSink.send(toEvent(sse, snapshot));
+            stream.broadcaster.register(eventSink);
+        } finally {
+            stream.lock.unlock();
+        }
+    }
+
+    public void publish(String jobId, Supplier<TimetableDelta> deltaSupplier) {
+        JobStream stream = streamByJobId.get(jobId);
+        if (stream == null) {
+            return;
+        }
+        stream.lock.lock();
+        try {
+            if (!stream.completed && stream.broadcaster != null) {
+                stream.broadcaster.broadcast(toEvent(sse, deltaSupplier.get()));
+            }
+        } finally {
+            stream.lock.unlock();
+        }
+    }
+
+    // Sends the last delta and closes the event streams of the job
+    public void complete(String jobId, Supplier<TimetableDelta> deltaSupplier) {
+        JobStream stream = streamByJobId.remove(jobId);
+        if (stream == null) {
+            return;
+        }
+        stream.lock.lock();
+        try {
+            stream.completed = true;
+            SseBroadcaster broadcaster = stream.broadcaster;
+            if (broadcaster != null) {
+                broadcaster.broadcast(toEvent(sse, deltaSupplier.get()))
+                        .whenComplete((result, exception) -> broadcaster.close());
+            }
+        } finally {
+            stream.lock.unlock();
+        }
+    }
+
+    private static OutboundSseEvent toEvent(Sse sse, TimetableDelta delta) {
+        return sse.newEventBuilder()
+                .name(EVENT_NAME)
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(TimetableDelta.class, delta)
+                .build();
+    }
+
+    // The map only hands out the stream of a job, the sends happen under the stream's own lock.
+    // A completed stream is out of the map and takes no more subscribers.
+    private static final class JobStream {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private SseBroadcaster broadcaster;
+        private boolean completed;
+    }
+}
@@ -0,0 +1,151 @@
+package org.acme.schooltimetabling.rest;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import org.acme.schooltimetabling.domain.Timetable;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Latest state of each submitted job, bounded by the estimated size of the stored solutions.
+// Only finished jobs count towards that bound and expire after a time to live, a solving or queued job is never evicted.
+@Singleton
+public class TimetableJobStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimetableJobStore.class);
+
+    private final Cache<String, Job> jobIdToJob;
+    private final List<Consumer<String>> evictionListeners = new CopyOnWriteArrayList<>();
+
+    @Inject
+    public TimetableJobStore(
+            @ConfigProperty(name = "timetable.job-store.maximum-weight", defaultValue = "1000000") long maximumWeight,
+            @ConfigProperty(name = "timetable.job-store.time-to-live", defaultValue = "1h") Duration timeToLive) {
+        this.jobIdToJob = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((String jobId, Job job) -> job.weight())
+                .expireAfter(new FinishedJobExpiry(timeToLive))
+                .scheduler(Scheduler.systemScheduler())
+                // Runs on Caffeine's executor, after the entry is removed, as the listeners update the store again
+                .removalListener((String jobId, Job job, RemovalCause cause) -> {
+                    if (!cause.wasEvicted()) {
+                        return;
+                    }
+                    LOGGER.info("Evicted jobId ({}) from the job store ({}).", jobId, cause);
+                    evictionListeners.forEach(listener -> listener.accept(jobId));
+                })
+                .recordStats()
+                .build();
+    }
+
+    // Called with the job ID of every evicted job, to terminate its solver and release its resources
+    public void addEvictionListener(Consumer<String> evictionListener) {
+        evictionListeners.add(evictionListener);
+    }
+
+    public Collection<String> jobIds() {
+        return jobIdToJob.asMap().keySet();
+    }
+
+    public Job get(String jobId) {
+        return jobIdToJob.getIfPresent(jobId);
+    }
+
+    public void put(String jobId, Job job) {
+        jobIdToJob.put(jobId, job);
+    }
+
+    // Unlike an eviction, does not notify the eviction listeners
+    public void remove(String jobId) {
+        jobIdToJob.invalidate(jobId);
+    }
+
+    // Does nothing and returns null if the job has been evicted in the meantime,
+    // so that a late solver event cannot bring it back
+    public Job update(String jobId, UnaryOperator<Job> updater) {
+        return jobIdToJob.asMap().computeIfPresent(jobId, (jobId_, oldJob) -> updater.apply(oldJob));
+    }
+
+    public long size() {
+        return jobIdToJob.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return jobIdToJob.stats();
+    }
+
+    public record Job(VersionedTimetable solution, Throwable exception, boolean finished) {
+
+        public static Job ofTimetable(Timetable timetable) {
+            return new Job(VersionedTimetable.of(timetable), null, false);
+        }
+
+        public static Job ofFinishedTimetable(Timetable timetable) {
+            return new Job(VersionedTimetable.of(timetable), null, true);
+        }
+
+        public static Job ofException(Throwable error) {
+            return new Job(null, error, true);
+        }
+
+        public Job withBestSolution(Timetable bestSolution, boolean finished) {
+            return new Job(solution == null ? VersionedTimetable.of(bestSolution) : solution.next(bestSolution), null,
+                    finished);
+        }
+
+        public Timetable timetable() {
+            return solution == null ? null : solution.timetable();
+        }
+
+        // Estimated number of domain objects held by the solution. Caffeine never evicts an entry of weight 0 by size,
+        // and weighs it again on the update that finishes it.
+        int weight() {
+            if (!finished) {
+                return 0;
+            }
+            Timetable timetable = timetable();
+            if (timetable == null) {
+                return 1;
+            }
+            return 1 + sizeOf(timetable.getSessions()) + sizeOf(timetable.getBeamtimeSlots())
+                    + sizeOf(timetable.getLocalContacts()) + sizeOf(timetable.getStaffMembers());
+        }
+
+        private static int sizeOf(Collection<?> collection) {
+            return collection == null ? 0 : collection.size();
+        }
+    }
+
+    private record FinishedJobExpiry(Duration timeToLive) implements Expiry<String, Job> {
+
+        @Override
+        public long expireAfterCreate(String jobId, Job job, long currentTime) {
+            return job.finished() ? timeToLive.toNanos() : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(String jobId, Job job, long currentTime, long currentDuration) {
+            return expireAfterCreate(jobId, job, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String jobId, Job job, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
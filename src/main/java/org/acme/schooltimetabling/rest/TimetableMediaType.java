@@ -0,0 +1,19 @@
+package org.acme.schooltimetabling.rest;
+
+import jakarta.ws.rs.core.MediaType;
+
+// Media types of the compact, reference-based timetable representation, see CompactTimetable
+public final class TimetableMediaType {
+
+    public static final String COMPACT_JSON = "application/vnd.timetable.compact+json";
+    public static final MediaType COMPACT_JSON_TYPE = MediaType.valueOf(COMPACT_JSON);
+
+    public static final String SMILE = "application/x-jackson-smile";
+    public static final MediaType SMILE_TYPE = MediaType.valueOf(SMILE);
+
+    public static final String CBOR = "application/cbor";
+    public static final MediaType CBOR_TYPE = MediaType.valueOf(CBOR);
+
+    private TimetableMediaType() {
+    }
+}
@@ -0,0 +1,89 @@
+package org.acme.schooltimetabling.rest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.acme.schooltimetabling.domain.Timetable;
+
+// Job level metrics, published at /q/metrics next to the solver metrics Timefold tags with the job ID (solver.id):
+// score calculation and move evaluation counts, best score and solve duration per job.
+// Tagging these with the job ID as well would grow the series without bound, so they are only tagged by solving mode.
+@Singleton
+public class TimetableMetrics {
+
+    private record SolvingJob(SolvingMode mode, long startNanos) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Counter bestSolutionCounter;
+
+    // Until the job's first feasible best solution, or until it stops solving
+    private final Map<String, SolvingJob> solvingJobByJobId = new ConcurrentHashMap<>();
+
+    @Inject
+    public TimetableMetrics(MeterRegistry meterRegistry, TimetableJobStore jobStore,
+            TimetableAdmissionQueue admissionQueue) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("timetable.jobs.solving", admissionQueue, TimetableAdmissionQueue::getSolvingCount)
+                .description("Jobs admitted to solve")
+                .register(meterRegistry);
+        Gauge.builder("timetable.jobs.queued", admissionQueue, TimetableAdmissionQueue::getQueuedCount)
+                .description("Jobs waiting to be admitted")
+                .register(meterRegistry);
+        Gauge.builder("timetable.job.store.size", jobStore, TimetableJobStore::size)
+                .description("Jobs in the job store, solving or finished")
+                .register(meterRegistry);
+        FunctionCounter.builder("timetable.job.store.evictions", jobStore, store -> store.stats().evictionCount())
+                .description("Jobs evicted from the job store, because they expired or the store was full")
+                .register(meterRegistry);
+        this.bestSolutionCounter = Counter.builder("timetable.best.solutions")
+                .description("Best solution events of all jobs")
+                .register(meterRegistry);
+    }
+
+    public void solvingStarted(String jobId, SolvingMode mode) {
+        solvingJobByJobId.put(jobId, new SolvingJob(mode, System.nanoTime()));
+    }
+
+    public void bestSolutionChanged(String jobId, Timetable solution) {
+        bestSolutionCounter.increment();
+        if (solution.getScore() == null || !solution.getScore().isFeasible()) {
+            return;
+        }
+        SolvingJob solvingJob = solvingJobByJobId.remove(jobId);
+        if (solvingJob != null) {
+            Timer.builder("timetable.time.to.first.feasible")
+                    .description("Time from the start of solving to the first feasible best solution")
+                    .tag("mode", solvingJob.mode().name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - solvingJob.startNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Records the phase times of the solvers of a job, see PhaseTimer
+    public ObjLongConsumer<String> phaseTimeListener(SolvingMode mode) {
+        return (phase, durationNanos) -> Timer.builder("timetable.solver.phase")
+                .description("Time spent in each solver phase before the local search")
+                .tag("phase", phase)
+                .tag("mode", mode.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void solvingEnded(String jobId) {
+        solvingJobByJobId.remove(jobId);
+    }
+}
@@ -1,33 +1,51 @@
 package org.acme.schooltimetabling.rest;
 
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
 import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.stream.IntStream;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 
 import ai.timefold.solver.core.api.score.analysis.ScoreAnalysis;
 import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
 import ai.timefold.solver.core.api.solver.ScoreAnalysisFetchPolicy;
-import ai.timefold.solver.core.api.solver.SolutionManager;
-import ai.timefold.solver.core.api.solver.SolverManager;
 import ai.timefold.solver.core.api.solver.SolverStatus;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
+
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.DatePreference;
+import org.acme.schooltimetabling.domain.LocalContact;
 import org.acme.schooltimetabling.domain.Timetable;
+import org.acme.schooltimetabling.rest.TimetableJobStore.Job;
 import org.acme.schooltimetabling.rest.exception.ErrorInfo;
 import org.acme.schooltimetabling.rest.exception.TimetableSolverException;
+import org.acme.schooltimetabling.solver.change.AddLocalContactProblemChange;
+import org.acme.schooltimetabling.solver.change.AddSessionsProblemChange;
+import org.acme.schooltimetabling.solver.change.ChangeDatePreferencesProblemChange;
+import org.acme.schooltimetabling.solver.change.MarkBeamtimeSlotUnavailableProblemChange;
+import org.acme.schooltimetabling.solver.change.RemoveLocalContactProblemChange;
+import org.acme.schooltimetabling.solver.change.RemoveSessionProblemChange;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -36,32 +54,36 @@ import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+// Each request runs on its own virtual thread, so a large timetable being read from or written to a slow connection
+// holds no platform thread, and status polls are not queued behind it. Jackson parses and writes the bodies as streams.
 @Tag(name = "School Timetables", description = "School timetable service assigning lessons to rooms and timeslots.")
 @Path("timetables")
+@RunOnVirtualThread
 public class TimetableResource {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(TimetableResource.class);
-
-    private final SolverManager<Timetable, String> solverManager;
-    private final SolutionManager<Timetable, HardSoftScore> solutionManager;
-
-    // TODO: Without any "time to live", the map may eventually grow out of memory.
-    private final ConcurrentMap<String, Job> jobIdToJob = new ConcurrentHashMap<>();
+    private final TimetableAnalysisCache analysisCache;
+    private final TimetableJobStore jobStore;
+    private final TimetableSolvingService solvingService;
+    private final TimetableEventBroadcaster eventBroadcaster;
 
     // Workaround to make Quarkus CDI happy. Do not use.
     public TimetableResource() {
-        this.solverManager = null;
-        this.solutionManager = null;
+        this.analysisCache = null;
+        this.jobStore = null;
+        this.solvingService = null;
+        this.eventBroadcaster = null;
     }
 
     @Inject
-    public TimetableResource(SolverManager<Timetable, String> solverManager,
-            SolutionManager<Timetable, HardSoftScore> solutionManager) {
-        this.solverManager = solverManager;
-        this.solutionManager = solutionManager;
+    public TimetableResource(TimetableAnalysisCache analysisCache,
+            TimetableJobStore jobStore,
+            TimetableSolvingService solvingService,
+            TimetableEventBroadcaster eventBroadcaster) {
+        this.analysisCache = analysisCache;
+        this.jobStore = jobStore;
+        this.solvingService = solvingService;
+        this.eventBroadcaster = eventBroadcaster;
     }
 
     @Operation(summary = "List the job IDs of all submitted timetables.")
@@ -72,45 +94,82 @@ public class TimetableResource {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Collection<String> list() {
-        return jobIdToJob.keySet();
+        return jobStore.jobIds();
     }
 
     @Operation(summary = "Submit a timetable to start solving as soon as CPU resources are available.")
     @APIResponses(value = {
             @APIResponse(responseCode = "202",
                     description = "The job ID. Use that ID to get the solution with the other methods.",
-                    content = @Content(mediaType = MediaType.TEXT_PLAIN, schema = @Schema(implementation = String.class))) })
+                    content = @Content(mediaType = MediaType.TEXT_PLAIN, schema = @Schema(implementation = String.class))),
+            @APIResponse(responseCode = "400", description = "The time budget is not an ISO-8601 duration, or a beamline with sessions has no local contact.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "429", description = "The queue is full, for everyone or for this client. Retry after the number of seconds in the Retry-After header.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))) })
     @POST
-    @Consumes({ MediaType.APPLICATION_JSON })
+    @Consumes({ MediaType.APPLICATION_JSON, TimetableMediaType.COMPACT_JSON, TimetableMediaType.SMILE, TimetableMediaType.CBOR })
     @Produces(MediaType.TEXT_PLAIN)
-    public String solve(Timetable problem) {
-        String jobId = UUID.randomUUID().toString();
-        jobIdToJob.put(jobId, Job.ofTimetable(problem));
-        solverManager.solveBuilder()
-                .withProblemId(jobId)
-                .withProblemFinder(jobId_ -> jobIdToJob.get(jobId).timetable)
-                .withBestSolutionConsumer(solution -> jobIdToJob.put(jobId, Job.ofTimetable(solution)))
-                .withExceptionHandler((jobId_, exception) -> {
-                    jobIdToJob.put(jobId, Job.ofException(exception));
-                    LOGGER.error("Failed solving jobId ({}).", jobId, exception);
-                })
-                .run();
-        return jobId;
-    }
-
-    @Operation(summary = "Submit a timetable to analyze its score.")
+    public String solve(Timetable problem,
+            @Parameter(description = "How to solve: one solver for the whole timetable, one solver per beamline in parallel followed by a short polish of the merged timetable, one window of days after the other, or a race of differently configured solvers on the whole timetable.") @QueryParam("mode") @DefaultValue("DEFAULT") SolvingMode mode,
+            @Parameter(description = "The client the job counts against for the queue and concurrency limits.") @HeaderParam("X-Client-Id") @DefaultValue("anonymous") String clientId,
+            @Parameter(description = "Jobs with a higher priority are admitted first, jobs of the same priority in submission order.") @QueryParam("priority") @DefaultValue("0") int priority,
+            @Parameter(description = "How long to solve, as an ISO-8601 duration such as PT2M. Defaults to the configured spent limits.") @QueryParam("timeBudget") String timeBudget) {
+        return solvingService.solve(problem, mode, clientId, priority, parseTimeBudget(timeBudget));
+    }
+
+    private static Duration parseTimeBudget(String timeBudget) {
+        if (timeBudget == null || timeBudget.isBlank()) {
+            return null;
+        }
+        try {
+            Duration duration = Duration.parse(timeBudget);
+            if (!duration.isNegative() && !duration.isZero()) {
+                return duration;
+            }
+        } catch (DateTimeParseException e) {
+            // Reported below
+        }
+        throw new TimetableSolverException(null, Response.Status.BAD_REQUEST,
+                "The time budget (%s) is not a positive ISO-8601 duration, such as PT2M.".formatted(timeBudget));
+    }
+
+    @Operation(summary = "Submit a timetable to analyze its score. The analysis of a timetable with the same assignments is reused.")
     @APIResponses(value = {
             @APIResponse(responseCode = "202",
                     description = "Resulting score analysis, optionally without constraint matches.",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON,
                             schema = @Schema(implementation = ScoreAnalysis.class))) })
     @PUT
-    @Consumes({ MediaType.APPLICATION_JSON })
+    @Consumes({ MediaType.APPLICATION_JSON, TimetableMediaType.COMPACT_JSON, TimetableMediaType.SMILE, TimetableMediaType.CBOR })
     @Produces(MediaType.APPLICATION_JSON)
     @Path("analyze")
     public ScoreAnalysis<HardSoftScore> analyze(Timetable problem,
             @QueryParam("fetchPolicy") ScoreAnalysisFetchPolicy fetchPolicy) {
-        return fetchPolicy == null ? solutionManager.analyze(problem) : solutionManager.analyze(problem, fetchPolicy);
+        return analysisCache.analyze(problem, fetchPolicy);
+    }
+
+    @Operation(summary = "Analyze the score of the best solution so far of a given job ID, without uploading it again.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200",
+                    description = "Resulting score analysis, optionally without constraint matches.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ScoreAnalysis.class))),
+            @APIResponse(responseCode = "404", description = "No timetable found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "500", description = "Exception during solving a timetable.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("{jobId}/analyze")
+    public ScoreAnalysis<HardSoftScore> analyzeJob(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            @QueryParam("fetchPolicy") ScoreAnalysisFetchPolicy fetchPolicy) {
+        return analysisCache.analyzeBestSolution(getJobAndCheckForExceptions(jobId).timetable(), fetchPolicy);
     }
 
     @Operation(
@@ -127,18 +186,18 @@ public class TimetableResource {
                             schema = @Schema(implementation = ErrorInfo.class)))
     })
     @GET
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({ MediaType.APPLICATION_JSON, TimetableMediaType.COMPACT_JSON, TimetableMediaType.SMILE, TimetableMediaType.CBOR })
     @Path("{jobId}")
     public Timetable getTimeTable(
             @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId) {
-        Timetable timetable = getTimetableAndCheckForExceptions(jobId);
-        SolverStatus solverStatus = solverManager.getSolverStatus(jobId);
-        timetable.setSolverStatus(solverStatus);
+        Job job = getJobAndCheckForExceptions(jobId);
+        Timetable timetable = job.timetable();
+        timetable.setSolverStatus(solvingService.getSolverStatus(jobId, job));
         return timetable;
     }
 
     @Operation(
-            summary = "Get the timetable status and score for a given job ID.")
+            summary = "Get the timetable status and score for a given job ID, and its position in the queue while it waits to be admitted.")
     @APIResponses(value = {
             @APIResponse(responseCode = "200", description = "The timetable status and the best score so far.",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON,
@@ -155,20 +214,305 @@ public class TimetableResource {
     @Path("{jobId}/status")
     public Timetable getStatus(
             @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId) {
-        Timetable timetable = getTimetableAndCheckForExceptions(jobId);
-        SolverStatus solverStatus = solverManager.getSolverStatus(jobId);
-        return new Timetable(timetable.getName(), timetable.getScore(), solverStatus);
+        Job job = getJobAndCheckForExceptions(jobId);
+        Timetable timetable = job.timetable();
+        Timetable status = new Timetable(timetable.getName(), timetable.getScore(), solvingService.getSolverStatus(jobId, job));
+        status.setQueuePosition(solvingService.getQueuePosition(jobId));
+        return status;
+    }
+
+    @Operation(
+            summary = "Stream the best solution changes of a given job ID as Server-Sent Events. The first event holds every session assignment, the next ones only the sessions whose beamtime slot or local contact changed. The stream ends when solving ends.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Stream of timetable events.",
+                    content = @Content(mediaType = MediaType.SERVER_SENT_EVENTS,
+                            schema = @Schema(implementation = TimetableDelta.class))),
+            @APIResponse(responseCode = "404", description = "No timetable found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "500", description = "Exception during solving a timetable.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Path("{jobId}/events")
+    public void streamEvents(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            @Context SseEventSink eventSink, @Context Sse sse) {
+        Job job = getJobAndCheckForExceptions(jobId);
+        eventBroadcaster.subscribe(jobId, sse, eventSink, () -> snapshot(jobId, job));
+    }
+
+    // Reads the job again, it may have changed or failed since it was checked
+    private TimetableDelta snapshot(String jobId, Job checkedJob) {
+        Job job = jobStore.get(jobId);
+        if (job == null || job.exception() != null) {
+            return TimetableDelta.ofStatus(checkedJob.solution().version(), SolverStatus.NOT_SOLVING);
+        }
+        return job.solution().changesSince(-1L, solvingService.getSolverStatus(jobId, job));
+    }
+
+    @Operation(
+            summary = "Get the session assignments that changed since a given solution version of a job ID. Every best solution gets the next version, the submitted problem is version 0.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200",
+                    description = "The current version, score and the changed sessions. Marked complete, with every session, if the given version is missing, unknown or too old.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = TimetableDelta.class))),
+            @APIResponse(responseCode = "404", description = "No timetable found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "500", description = "Exception during solving a timetable.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("{jobId}/changes")
+    public TimetableDelta getChanges(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            @Parameter(description = "The last solution version the client has.") @QueryParam("since") @DefaultValue("-1") long since) {
+        Job job = getJobAndCheckForExceptions(jobId);
+        return job.solution().changesSince(since, solvingService.getSolverStatus(jobId, job));
+    }
+
+    @Operation(
+            summary = "Get the per-window progress of a job ID submitted with mode=ROLLING_HORIZON.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "The windows in solving order, with their status, session count and score.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = RollingHorizonProgress.class))),
+            @APIResponse(responseCode = "404", description = "No timetable found, or it is not solved window by window.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "500", description = "Exception during solving a timetable.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("{jobId}/progress")
+    public RollingHorizonProgress getRollingHorizonProgress(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId) {
+        getJobAndCheckForExceptions(jobId);
+        RollingHorizonProgress progress = solvingService.getRollingHorizonProgress(jobId);
+        if (progress == null) {
+            throw new TimetableSolverException(jobId, Response.Status.NOT_FOUND, "No rolling horizon progress found.");
+        }
+        return progress;
+    }
+
+    @Operation(
+            summary = "Add sessions to a proposal of a solving timetable, without restarting the solver.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "The IDs of the new sessions, added to the running solver.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(type = SchemaType.ARRAY, implementation = String.class))),
+            @APIResponse(responseCode = "400", description = "No such proposal or beamline, the beamline has no local contact, or no session to add.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "404", description = "No timetable found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "409", description = "The timetable is not solving, or not with a solver that takes changes.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "500", description = "Exception during solving a timetable.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("{jobId}/sessions")
+    public List<String> addSessions(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            SessionAddition sessionAddition) {
+        Timetable timetable = getJobAndCheckForExceptions(jobId).timetable();
+        boolean proposalExists = timetable.getSessions().stream()
+                .anyMatch(session -> session.getProposal().getFinalNumber().equals(sessionAddition.proposal()));
+        boolean beamlineHasLocalContacts = timetable.getLocalContacts().stream()
+                .map(localContact -> localContact.getBeamline().getId())
+                .anyMatch(beamlineId -> beamlineId.equals(sessionAddition.beamline()));
+        if (!proposalExists || !beamlineHasLocalContacts || sessionAddition.count() <= 0) {
+            throw new TimetableSolverException(jobId, Response.Status.BAD_REQUEST,
+                    "No proposal (%s) or beamline with a local contact (%s) found, or no session to add."
+                            .formatted(sessionAddition.proposal(), sessionAddition.beamline()));
+        }
+        List<String> sessionIds = IntStream.range(0, sessionAddition.count())
+                .mapToObj(i -> UUID.randomUUID().toString())
+                .toList();
+        solvingService.addProblemChange(jobId,
+                new AddSessionsProblemChange(sessionAddition.proposal(), sessionAddition.beamline(), sessionIds));
+        return sessionIds;
+    }
+
+    @Operation(
+            summary = "Remove a session from a solving timetable, without restarting the solver.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "204", description = "The change is accepted and applied to the running solver."),
+            @APIResponse(responseCode = "404", description = "No timetable found, or no such session.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "409", description = "The timetable is not solving, or not with a solver that takes changes.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "500", description = "Exception during solving a timetable.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @DELETE
+    @Path("{jobId}/sessions/{sessionId}")
+    public void removeSession(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            @Parameter(description = "The session ID.") @PathParam("sessionId") String sessionId) {
+        Timetable timetable = getJobAndCheckForExceptions(jobId).timetable();
+        if (timetable.getSessions().stream().noneMatch(session -> session.getId().equals(sessionId))) {
+            throw new TimetableSolverException(jobId, Response.Status.NOT_FOUND, "No session (%s) found.".formatted(sessionId));
+        }
+        solvingService.addProblemChange(jobId, new RemoveSessionProblemChange(sessionId));
+    }
+
+    @Operation(
+            summary = "Mark a beamtime slot of a solving timetable unavailable. Its sessions are planned again, without restarting the solver.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "204", description = "The change is accepted and applied to the running solver."),
+            @APIResponse(responseCode = "404", description = "No timetable found, or no such beamtime slot.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "409", description = "The timetable is not solving, or not with a solver that takes changes.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "500", description = "Exception during solving a timetable.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @PUT
+    @Path("{jobId}/beamtime-slots/{beamtimeSlotId}/unavailable")
+    public void markBeamtimeSlotUnavailable(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            @Parameter(description = "The beamtime slot ID.") @PathParam("beamtimeSlotId") String beamtimeSlotId) {
+        Timetable timetable = getJobAndCheckForExceptions(jobId).timetable();
+        if (timetable.getBeamtimeSlots().stream().noneMatch(beamtimeSlot -> beamtimeSlot.getId().equals(beamtimeSlotId))) {
+            throw new TimetableSolverException(jobId, Response.Status.NOT_FOUND,
+                    "No beamtime slot (%s) found.".formatted(beamtimeSlotId));
+        }
+        solvingService.addProblemChange(jobId, new MarkBeamtimeSlotUnavailableProblemChange(beamtimeSlotId));
     }
 
-    private Timetable getTimetableAndCheckForExceptions(String jobId) {
-        Job job = jobIdToJob.get(jobId);
+    @Operation(
+            summary = "Add a local contact to a beamline of a solving timetable, without restarting the solver.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "The ID of the new local contact, added to the running solver.",
+                    content = @Content(mediaType = MediaType.TEXT_PLAIN, schema = @Schema(implementation = String.class))),
+            @APIResponse(responseCode = "400", description = "No such beamline, or neither a staff member ID nor a name.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "404", description = "No timetable found.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "409", description = "The timetable is not solving, or not with a solver that takes changes.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "500", description = "Exception during solving a timetable.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.TEXT_PLAIN)
+    @Path("{jobId}/local-contacts")
+    public String addLocalContact(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            LocalContactAddition localContactAddition) {
+        Timetable timetable = getJobAndCheckForExceptions(jobId).timetable();
+        boolean beamlineExists = timetable.getBeamlines().stream()
+                .map(Beamline::getId)
+                .anyMatch(beamlineId -> beamlineId.equals(localContactAddition.beamline()));
+        if (!beamlineExists || (localContactAddition.staffMember() == null && localContactAddition.staffMemberName() == null)) {
+            throw new TimetableSolverException(jobId, Response.Status.BAD_REQUEST,
+                    "No beamline (%s) found, or neither a staff member ID nor a name.".formatted(localContactAddition.beamline()));
+        }
+        String localContactId = UUID.randomUUID().toString();
+        String staffMemberId = Objects.requireNonNullElseGet(localContactAddition.staffMember(), () -> UUID.randomUUID().toString());
+        solvingService.addProblemChange(jobId, new AddLocalContactProblemChange(localContactId, localContactAddition.beamline(),
+                staffMemberId, localContactAddition.staffMemberName()));
+        return localContactId;
+    }
+
+    @Operation(
+            summary = "Remove a local contact from a solving timetable. Its sessions get another one, without restarting the solver.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "204", description = "The change is accepted and applied to the running solver."),
+            @APIResponse(responseCode = "400", description = "The local contact is the last one of a beamline with sessions.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "404", description = "No timetable found, or no such local contact.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "409", description = "The timetable is not solving, or not with a solver that takes changes.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "500", description = "Exception during solving a timetable.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @DELETE
+    @Path("{jobId}/local-contacts/{localContactId}")
+    public void removeLocalContact(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            @Parameter(description = "The local contact ID.") @PathParam("localContactId") String localContactId) {
+        Timetable timetable = getJobAndCheckForExceptions(jobId).timetable();
+        LocalContact localContact = timetable.getLocalContacts().stream()
+                .filter(localContact_ -> localContact_.getId().equals(localContactId))
+                .findFirst()
+                .orElseThrow(() -> new TimetableSolverException(jobId, Response.Status.NOT_FOUND,
+                        "No local contact (%s) found.".formatted(localContactId)));
+        if (RemoveLocalContactProblemChange.isLastOfABeamlineWithSessions(timetable, localContact)) {
+            throw new TimetableSolverException(jobId, Response.Status.BAD_REQUEST,
+                    "The local contact (%s) is the last one of a beamline with sessions.".formatted(localContactId));
+        }
+        solvingService.addProblemChange(jobId, new RemoveLocalContactProblemChange(localContactId));
+    }
+
+    @Operation(
+            summary = "Replace the date preferences of a proposal of a solving timetable, without restarting the solver.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "204", description = "The change is accepted and applied to the running solver."),
+            @APIResponse(responseCode = "404", description = "No timetable found, or no such proposal.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "409", description = "The timetable is not solving, or not with a solver that takes changes.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class))),
+            @APIResponse(responseCode = "500", description = "Exception during solving a timetable.",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                            schema = @Schema(implementation = ErrorInfo.class)))
+    })
+    @PUT
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Path("{jobId}/proposals/{proposal}/date-preferences")
+    public void changeDatePreferences(
+            @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId,
+            @Parameter(description = "The proposal final number.") @PathParam("proposal") String proposal,
+            List<DatePreference> datePreferences) {
+        Timetable timetable = getJobAndCheckForExceptions(jobId).timetable();
+        if (timetable.getSessions().stream().noneMatch(session -> session.getProposal().getFinalNumber().equals(proposal))) {
+            throw new TimetableSolverException(jobId, Response.Status.NOT_FOUND, "No proposal (%s) found.".formatted(proposal));
+        }
+        solvingService.addProblemChange(jobId, new ChangeDatePreferencesProblemChange(proposal, List.copyOf(datePreferences)));
+    }
+
+    private Job getJobAndCheckForExceptions(String jobId) {
+        Job job = jobStore.get(jobId);
         if (job == null) {
             throw new TimetableSolverException(jobId, Response.Status.NOT_FOUND, "No timetable found.");
         }
-        if (job.exception != null) {
-            throw new TimetableSolverException(jobId, job.exception);
+        if (job.exception() != null) {
+            throw new TimetableSolverException(jobId, job.exception());
         }
-        return job.timetable;
+        return job;
     }
 
     @Operation(
@@ -185,23 +529,11 @@ public class TimetableResource {
                             schema = @Schema(implementation = ErrorInfo.class)))
     })
     @DELETE
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({ MediaType.APPLICATION_JSON, TimetableMediaType.COMPACT_JSON, TimetableMediaType.SMILE, TimetableMediaType.CBOR })
     @Path("{jobId}")
     public Timetable terminateSolving(
             @Parameter(description = "The job ID returned by the POST method.") @PathParam("jobId") String jobId) {
-        // TODO: Replace with .terminateEarlyAndWait(... [, timeout]); see https://github.com/TimefoldAI/timefold-solver/issues/77
-        solverManager.terminateEarly(jobId);
+        solvingService.terminate(jobId);
         return getTimeTable(jobId);
     }
-
-    private record Job(Timetable timetable, Throwable exception) {
-
-        static Job ofTimetable(Timetable timetable) {
-            return new Job(timetable, null);
-        }
-
-        static Job ofException(Throwable error) {
-            return new Job(null, error);
-        }
-    }
 }
@@ -0,0 +1,507 @@
+package org.acme.schooltimetabling.rest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.core.Response;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolverConfigOverride;
+import ai.timefold.solver.core.api.solver.SolverManager;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import ai.timefold.solver.core.config.solver.SolverManagerConfig;
+import ai.timefold.solver.core.config.solver.termination.TerminationConfig;
+
+import io.quarkus.runtime.StartupEvent;
+
+import org.acme.schooltimetabling.domain.Timetable;
+import org.acme.schooltimetabling.persistence.TimetableJobRepository;
+import org.acme.schooltimetabling.persistence.TimetableJobRepository.StoredJob;
+import org.acme.schooltimetabling.rest.RollingHorizonProgress.WindowStatus;
+import org.acme.schooltimetabling.rest.TimetableAdmissionQueue.Ticket;
+import org.acme.schooltimetabling.rest.TimetableJobStore.Job;
+import org.acme.schooltimetabling.rest.exception.TimetableAdmissionException;
+import org.acme.schooltimetabling.rest.exception.TimetableSolverException;
+import org.acme.schooltimetabling.solver.BeamlinePartitioner;
+import org.acme.schooltimetabling.solver.PortfolioStrategy;
+import org.acme.schooltimetabling.solver.RollingHorizon;
+import org.acme.schooltimetabling.solver.RollingHorizon.Window;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Starts, tracks and terminates the solvers of each job, and publishes their best solutions
+// to the job store, the job repository and the event subscribers.
+// A job may run several solvers one after the other or at the same time, under their own problem IDs.
+@Singleton
+public class TimetableSolvingService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimetableSolvingService.class);
+
+    private static final String RESUMED_CLIENT_ID = "resumed";
+
+    private final SolverManager<Timetable, String> solverManager;
+    private final TimetableJobStore jobStore;
+    private final TimetableJobRepository jobRepository;
+    private final TimetableEventBroadcaster eventBroadcaster;
+    private final TimetableAdmissionQueue admissionQueue;
+    private final TimetableMetrics metrics;
+    private final Duration partitionSpentLimit;
+    private final Duration polishSpentLimit;
+    private final int windowDays;
+    private final int overlapDays;
+    private final Duration windowSpentLimit;
+    private final SolverConfig solverConfig;
+    private final Set<PortfolioStrategy> portfolioStrategies;
+    // Created on the first portfolio job, as each one builds its own solver factory and thread pool
+    private final ConcurrentMap<PortfolioStrategy, SolverManager<Timetable, String>> portfolioSolverManagers =
+            new ConcurrentHashMap<>();
+    private final Duration portfolioSpentLimit;
+    private final ScheduledExecutorService portfolioScheduler;
+
+    // Problem IDs of the solvers a job runs besides the one under its own job ID
+    private final ConcurrentMap<String, Set<String>> subProblemIdsByJobId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RollingHorizonProgress> rollingHorizonProgressByJobId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, PortfolioRace> portfolioRaceByJobId = new ConcurrentHashMap<>();
+
+    @Inject
+    public TimetableSolvingService(SolverManager<Timetable, String> solverManager,
+            SolverConfig solverConfig,
+            TimetableJobStore jobStore,
+            TimetableJobRepository jobRepository,
+            TimetableEventBroadcaster eventBroadcaster,
+            TimetableAdmissionQueue admissionQueue,
+            TimetableMetrics metrics,
+            @ConfigProperty(name = "timetable.partitioned.partition-spent-limit",
+                    defaultValue = "20s") Duration partitionSpentLimit,
+            @ConfigProperty(name = "timetable.partitioned.polish-spent-limit",
+                    defaultValue = "10s") Duration polishSpentLimit,
+            @ConfigProperty(name = "timetable.rolling-horizon.window-days", defaultValue = "7") int windowDays,
+            @ConfigProperty(name = "timetable.rolling-horizon.overlap-days", defaultValue = "2") int overlapDays,
+            @ConfigProperty(name = "timetable.rolling-horizon.window-spent-limit",
+                    defaultValue = "10s") Duration windowSpentLimit,
+            @ConfigProperty(name = "timetable.portfolio.strategies",
+                    defaultValue = "LATE_ACCEPTANCE,TABU_SEARCH,SIMULATED_ANNEALING,GREAT_DELUGE") List<PortfolioStrategy> portfolioStrategies,
+            @ConfigProperty(name = "timetable.portfolio.spent-limit", defaultValue = "30s") Duration portfolioSpentLimit) {
+        this.solverManager = solverManager;
+        this.jobStore = jobStore;
+        this.jobRepository = jobRepository;
+        this.eventBroadcaster = eventBroadcaster;
+        this.admissionQueue = admissionQueue;
+        this.metrics = metrics;
+        this.partitionSpentLimit = partitionSpentLimit;
+        this.polishSpentLimit = polishSpentLimit;
+        this.windowDays = windowDays;
+        this.overlapDays = overlapDays;
+        this.windowSpentLimit = windowSpentLimit;
+        this.solverConfig = solverConfig;
+        this.portfolioStrategies = EnumSet.noneOf(PortfolioStrategy.class);
+        this.portfolioStrategies.addAll(portfolioStrategies);
+        this.portfolioSpentLimit = portfolioSpentLimit;
+        this.portfolioScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "portfolio-culling");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // After construction rather than in the constructor, which must not hand out this
+    @PostConstruct
+    void registerEvictionListener() {
+        jobStore.addEvictionListener(jobId -> {
+            terminate(jobId);
+            rollingHorizonProgressByJobId.remove(jobId);
+            jobRepository.delete(jobId);
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        portfolioScheduler.shutdownNow();
+        portfolioSolverManagers.values().forEach(SolverManager::close);
+    }
+
+    // Reloads the persisted jobs and resumes the unfinished ones from their last best solution
+    void resumePersistedJobs(@Observes StartupEvent startupEvent) {
+        for (StoredJob storedJob : jobRepository.loadAll()) {
+            String jobId = storedJob.jobId();
+            if (storedJob.failureMessage() != null) {
+                jobStore.put(jobId, Job.ofException(new IllegalStateException(storedJob.failureMessage())));
+            } else if (storedJob.finished()) {
+                jobStore.put(jobId, Job.ofFinishedTimetable(storedJob.timetable()));
+            } else {
+                LOGGER.info("Resuming jobId ({}) from its last best solution.", jobId);
+                jobStore.put(jobId, Job.ofTimetable(storedJob.timetable()));
+                // Already admitted before the restart
+                startAdmitted(admissionQueue.submit(jobId, RESUMED_CLIENT_ID, 0, null, SolvingMode.DEFAULT,
+                        solverCount(SolvingMode.DEFAULT), false));
+            }
+        }
+    }
+
+    // Queues the job, it starts solving once admitted. A null time budget keeps the configured spent limits.
+    public String solve(Timetable problem, SolvingMode mode, String clientId, int priority, Duration timeBudget) {
+        String jobId = UUID.randomUUID().toString();
+        jobStore.put(jobId, Job.ofTimetable(problem));
+        List<Ticket> admitted;
+        try {
+            admitted = admissionQueue.submit(jobId, clientId, priority, timeBudget, mode, solverCount(mode), true);
+        } catch (TimetableAdmissionException e) {
+            jobStore.remove(jobId);
+            throw e;
+        }
+        jobRepository.saveSolving(jobId, problem);
+        startAdmitted(admitted);
+        return jobId;
+    }
+
+    private void startAdmitted(List<Ticket> tickets) {
+        for (Ticket ticket : tickets) {
+            String jobId = ticket.jobId();
+            Job job = jobStore.get(jobId);
+            if (job == null) {
+                // Evicted while queued
+                startAdmitted(admissionQueue.release(jobId));
+                continue;
+            }
+            Timetable problem = job.timetable();
+            Duration timeBudget = ticket.timeBudget();
+            metrics.solvingStarted(jobId, ticket.mode());
+            problem.setPhaseTimeListener(metrics.phaseTimeListener(ticket.mode()));
+            switch (ticket.mode()) {
+                case DEFAULT -> startSolving(jobId, problem, timeBudget);
+                case BEAMLINE_PARTITIONED -> startPartitionedSolving(jobId, problem,
+                        timeBudget == null ? partitionSpentLimit : timeBudget.multipliedBy(2).dividedBy(3),
+                        timeBudget == null ? polishSpentLimit : timeBudget.dividedBy(3));
+                case ROLLING_HORIZON -> startRollingHorizonSolving(jobId, problem, timeBudget);
+                case PORTFOLIO -> startPortfolioSolving(jobId, problem, timeBudget);
+            }
+        }
+    }
+
+    // Null if the job is not waiting for admission
+    public Integer getQueuePosition(String jobId) {
+        return admissionQueue.getQueuePosition(jobId);
+    }
+
+    public void terminate(String jobId) {
+        if (admissionQueue.isQueued(jobId)) {
+            startAdmitted(admissionQueue.release(jobId));
+            Job job = jobStore.get(jobId);
+            if (job != null) {
+                onFinalBestSolution(jobId, job.timetable());
+            }
+            return;
+        }
+        Set<String> subProblemIds = subProblemIdsByJobId.remove(jobId);
+        if (subProblemIds != null) {
+            subProblemIds.forEach(solverManager::terminateEarly);
+        }
+        PortfolioRace race = portfolioRaceByJobId.get(jobId);
+        if (race != null) {
+            race.strategies().forEach(strategy -> portfolioSolverManager(strategy)
+                    .terminateEarly(race.problemId(strategy)));
+        }
+        // Waits until the solver has terminated and handed its final best solution to the consumer,
+        // so the caller reads the finished job afterwards
+        solverManager.terminateEarly(jobId);
+    }
+
+    // A job is still solving while any of its solvers runs, even if none runs under the job ID itself
+    public SolverStatus getSolverStatus(String jobId, Job job) {
+        if (admissionQueue.isQueued(jobId)) {
+            return SolverStatus.SOLVING_SCHEDULED;
+        }
+        SolverStatus solverStatus = solverManager.getSolverStatus(jobId);
+        if (solverStatus == SolverStatus.NOT_SOLVING && !job.finished()) {
+            return SolverStatus.SOLVING_ACTIVE;
+        }
+        return solverStatus;
+    }
+
+    // Only the solver under the job ID takes changes, so not the beamline partitions nor the rolling horizon windows.
+    // The change is applied asynchronously, the next best solutions include it.
+    public void addProblemChange(String jobId, ProblemChange<Timetable> problemChange) {
+        if (solverManager.getSolverStatus(jobId) == SolverStatus.NOT_SOLVING) {
+            throw new TimetableSolverException(jobId, Response.Status.CONFLICT,
+                    "The timetable is not solving, or not with a solver that takes changes.");
+        }
+        solverManager.addProblemChange(jobId, problemChange)
+                .whenComplete((ignored, exception) -> {
+                    if (exception != null) {
+                        LOGGER.warn("Failed applying a problem change to jobId ({}).", jobId, exception);
+                    }
+                });
+    }
+
+    // Null if the job is unknown or does not solve window by window
+    public RollingHorizonProgress getRollingHorizonProgress(String jobId) {
+        return rollingHorizonProgressByJobId.get(jobId);
+    }
+
+    private void startSolving(String jobId, Timetable problem, Duration spentLimit) {
+        var solverJobBuilder = solverManager.solveBuilder()
+                .withProblemId(jobId)
+                .withProblemFinder(jobId_ -> problem)
+                .withBestSolutionConsumer(solution -> onBestSolution(jobId, solution))
+                .withFinalBestSolutionConsumer(solution -> onFinalBestSolution(jobId, solution))
+                .withExceptionHandler((jobId_, exception) -> onException(jobId, exception));
+        if (spentLimit != null) {
+            solverJobBuilder.withConfigOverride(new SolverConfigOverride<Timetable>()
+                    .withTerminationConfig(new TerminationConfig().withSpentLimit(spentLimit)));
+        }
+        solverJobBuilder.run();
+    }
+
+    // Solves each beamline on its own solver, all at the same time as far as the solver manager allows,
+    // then polishes the merged timetable with a solver under the job ID
+    private void startPartitionedSolving(String jobId, Timetable problem, Duration partitionSpentLimit,
+            Duration polishSpentLimit) {
+        List<Timetable> partitions = BeamlinePartitioner.split(problem);
+        if (partitions.size() <= 1) {
+            startSolving(jobId, problem, partitionSpentLimit.plus(polishSpentLimit));
+            return;
+        }
+        Timetable[] bestPartitions = partitions.toArray(Timetable[]::new);
+        AtomicInteger unfinishedPartitionCount = new AtomicInteger(partitions.size());
+        Set<String> subProblemIds = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < partitions.size(); i++) {
+            subProblemIds.add(jobId + "/" + i);
+        }
+        subProblemIdsByJobId.put(jobId, subProblemIds);
+        for (int i = 0; i < partitions.size(); i++) {
+            int partitionIndex = i;
+            solverManager.solveBuilder()
+                    .withProblemId(jobId + "/" + partitionIndex)
+                    .withProblemFinder(subProblemId -> partitions.get(partitionIndex))
+                    .withConfigOverride(new SolverConfigOverride<Timetable>()
+                            .withTerminationConfig(new TerminationConfig().withSpentLimit(partitionSpentLimit)))
+                    .withBestSolutionConsumer(solution -> {
+                        Timetable merged = mergePartition(problem, bestPartitions, partitionIndex, solution);
+                        onBestSolution(jobId, merged);
+                    })
+                    .withFinalBestSolutionConsumer(solution -> {
+                        Timetable merged = mergePartition(problem, bestPartitions, partitionIndex, solution);
+                        if (unfinishedPartitionCount.decrementAndGet() > 0) {
+                            return;
+                        }
+                        if (subProblemIdsByJobId.remove(jobId) == null) {
+                            // Terminated early, skip the polish phase
+                            onFinalBestSolution(jobId, merged);
+                        } else {
+                            LOGGER.info("Polishing the merged beamline partitions of jobId ({}).", jobId);
+                            startSolving(jobId, merged, polishSpentLimit);
+                        }
+                    })
+                    .withExceptionHandler((subProblemId, exception) -> {
+                        terminate(jobId);
+                        onException(jobId, exception);
+                    })
+                    .run();
+        }
+    }
+
+    // A time budget is shared out evenly over the windows
+    private void startRollingHorizonSolving(String jobId, Timetable problem, Duration timeBudget) {
+        RollingHorizon rollingHorizon = new RollingHorizon(problem, windowDays, overlapDays);
+        if (rollingHorizon.getWindows().size() <= 1) {
+            startSolving(jobId, problem, timeBudget);
+            return;
+        }
+        Duration windowSpentLimit = timeBudget == null ? this.windowSpentLimit
+                : timeBudget.dividedBy(rollingHorizon.getWindows().size());
+        rollingHorizonProgressByJobId.put(jobId, RollingHorizonProgress.of(rollingHorizon.getWindows()));
+        subProblemIdsByJobId.put(jobId, Set.of());
+        solveWindow(jobId, rollingHorizon, 0, windowSpentLimit);
+    }
+
+    // Solves a window, then commits it and moves on to the next window, unless the job was terminated meanwhile
+    private void solveWindow(String jobId, RollingHorizon rollingHorizon, int windowIndex, Duration windowSpentLimit) {
+        List<Window> windows = rollingHorizon.getWindows();
+        Window window = windows.get(windowIndex);
+        String subProblemId = jobId + "/window-" + windowIndex;
+        if (subProblemIdsByJobId.replace(jobId, Set.of(subProblemId)) == null) {
+            onFinalBestSolution(jobId, rollingHorizon.merge(null));
+            return;
+        }
+        Timetable windowProblem = rollingHorizon.createWindowProblem(window);
+        int sessionCount = windowProblem.getSessions().size();
+        updateRollingHorizonProgress(jobId, windowIndex, WindowStatus.SOLVING, sessionCount, null);
+        LOGGER.info("Solving window {}/{} ({} to {}) of jobId ({}) with {} sessions.",
+                windowIndex + 1, windows.size(), window.from(), window.until(), jobId, sessionCount);
+        solverManager.solveBuilder()
+                .withProblemId(subProblemId)
+                .withProblemFinder(subProblemId_ -> windowProblem)
+                .withConfigOverride(new SolverConfigOverride<Timetable>()
+                        .withTerminationConfig(new TerminationConfig().withSpentLimit(windowSpentLimit)))
+                .withBestSolutionConsumer(solution -> onBestSolution(jobId, rollingHorizon.merge(solution)))
+                .withFinalBestSolutionConsumer(solution -> {
+                    rollingHorizon.commit(window, solution);
+                    updateRollingHorizonProgress(jobId, windowIndex, WindowStatus.SOLVED, sessionCount,
+                            solution.getScore());
+                    if (windowIndex == windows.size() - 1 || !subProblemIdsByJobId.containsKey(jobId)) {
+                        subProblemIdsByJobId.remove(jobId);
+                        onFinalBestSolution(jobId, rollingHorizon.merge(null));
+                    } else {
+                        onBestSolution(jobId, rollingHorizon.merge(null));
+                        solveWindow(jobId, rollingHorizon, windowIndex + 1, windowSpentLimit);
+                    }
+                })
+                .withExceptionHandler((subProblemId_, exception) -> {
+                    terminate(jobId);
+                    onException(jobId, exception);
+                })
+                .run();
+        if (!subProblemIdsByJobId.containsKey(jobId)) {
+            // Terminated while the window was starting
+            solverManager.terminateEarly(subProblemId);
+        }
+    }
+
+    // Races the portfolio strategies on copies of the timetable, each strategy on its own solver manager, and publishes
+    // every new overall best solution. At checkpoints spread over the time budget, the solver with the worst best score
+    // is terminated, until one is left to use the rest of the budget.
+    private void startPortfolioSolving(String jobId, Timetable problem, Duration timeBudget) {
+        if (portfolioStrategies.size() <= 1) {
+            startSolving(jobId, problem, timeBudget);
+            return;
+        }
+        Duration spentLimit = timeBudget == null ? portfolioSpentLimit : timeBudget;
+        PortfolioRace race = new PortfolioRace(jobId, portfolioStrategies);
+        portfolioRaceByJobId.put(jobId, race);
+        portfolioStrategies.forEach(strategy -> portfolioSolverManager(strategy).solveBuilder()
+                .withProblemId(race.problemId(strategy))
+                .withProblemFinder(problemId -> problem)
+                .withConfigOverride(new SolverConfigOverride<Timetable>()
+                        .withTerminationConfig(new TerminationConfig().withSpentLimit(spentLimit)))
+                .withBestSolutionConsumer(solution -> onPortfolioBestSolution(jobId, race, strategy, solution))
+                .withFinalBestSolutionConsumer(solution -> {
+                    onPortfolioBestSolution(jobId, race, strategy, solution);
+                    onPortfolioSolverFinished(jobId, race, strategy, null);
+                })
+                .withExceptionHandler((problemId, exception) -> onPortfolioSolverFinished(jobId, race, strategy, exception))
+                .run());
+        Duration checkpointInterval = spentLimit.dividedBy(portfolioStrategies.size());
+        for (int i = 1; i < portfolioStrategies.size(); i++) {
+            portfolioScheduler.schedule(() -> cullPortfolio(jobId, race), checkpointInterval.multipliedBy(i).toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private SolverManager<Timetable, String> portfolioSolverManager(PortfolioStrategy strategy) {
+        return portfolioSolverManagers.computeIfAbsent(strategy,
+                strategy_ -> SolverManager.create(strategy.configure(solverConfig), new SolverManagerConfig()));
+    }
+
+    // Solvers the job runs at the same time, which the admission queue charges it for
+    private int solverCount(SolvingMode mode) {
+        return mode == SolvingMode.PORTFOLIO && portfolioStrategies.size() > 1 ? portfolioStrategies.size() : 1;
+    }
+
+    private void onPortfolioBestSolution(String jobId, PortfolioRace race, PortfolioStrategy strategy, Timetable solution) {
+        // Under the race's lock, so that a better solution of another solver is not published before this one
+        synchronized (race) {
+            if (race.offer(strategy, solution)) {
+                onBestSolution(jobId, solution);
+            }
+        }
+    }
+
+    private void onPortfolioSolverFinished(String jobId, PortfolioRace race, PortfolioStrategy strategy,
+            Throwable exception) {
+        if (exception != null) {
+            LOGGER.warn("Portfolio solver {} of jobId ({}) failed.", strategy, jobId, exception);
+        }
+        if (!race.finish(strategy, exception)) {
+            return;
+        }
+        portfolioRaceByJobId.remove(jobId);
+        Timetable bestSolution = race.bestSolution();
+        if (bestSolution == null) {
+            onException(jobId, race.lastException());
+            return;
+        }
+        LOGGER.info("Portfolio of jobId ({}) won by {} with score ({}).", jobId, race.leader(), bestSolution.getScore());
+        onFinalBestSolution(jobId, bestSolution);
+    }
+
+    private void cullPortfolio(String jobId, PortfolioRace race) {
+        if (portfolioRaceByJobId.get(jobId) != race) {
+            return;
+        }
+        PortfolioStrategy loser = race.cullWorst();
+        if (loser != null) {
+            LOGGER.info("Terminating portfolio solver {} of jobId ({}), behind with score ({}).",
+                    loser, jobId, race.bestScore(loser));
+            portfolioSolverManager(loser).terminateEarly(race.problemId(loser));
+        }
+    }
+
+    private void updateRollingHorizonProgress(String jobId, int windowIndex, WindowStatus status, int sessionCount,
+            HardSoftScore score) {
+        rollingHorizonProgressByJobId.computeIfPresent(jobId,
+                (jobId_, progress) -> progress.withWindow(windowIndex, status, sessionCount, score));
+    }
+
+    private static Timetable mergePartition(Timetable problem, Timetable[] bestPartitions, int partitionIndex,
+            Timetable bestPartition) {
+        synchronized (bestPartitions) {
+            bestPartitions[partitionIndex] = bestPartition;
+            return BeamlinePartitioner.merge(problem, Arrays.asList(bestPartitions));
+        }
+    }
+
+    private void onBestSolution(String jobId, Timetable solution) {
+        metrics.bestSolutionChanged(jobId, solution);
+        Job job = jobStore.update(jobId, previousJob -> previousJob.withBestSolution(solution, false));
+        if (job != null) {
+            jobRepository.saveSolving(jobId, solution);
+            eventBroadcaster.publish(jobId, () -> latestChanges(job, SolverStatus.SOLVING_ACTIVE));
+        }
+    }
+
+    private void onFinalBestSolution(String jobId, Timetable solution) {
+        // A failed job stays failed, even if its other solvers finish afterwards
+        Job job = jobStore.update(jobId, previousJob -> previousJob.exception() != null ? previousJob
+                : previousJob.withBestSolution(solution, true));
+        if (job != null && job.exception() == null) {
+            jobRepository.saveFinished(jobId, solution);
+            eventBroadcaster.complete(jobId, () -> latestChanges(job, SolverStatus.NOT_SOLVING));
+        }
+        metrics.solvingEnded(jobId);
+        startAdmitted(admissionQueue.release(jobId));
+    }
+
+    private void onException(String jobId, Throwable exception) {
+        Job previousJob = jobStore.get(jobId);
+        long version = previousJob == null || previousJob.solution() == null ? 0L : previousJob.solution().version();
+        if (jobStore.update(jobId, previousJob_ -> Job.ofException(exception)) != null) {
+            jobRepository.saveFailed(jobId, exception);
+        }
+        eventBroadcaster.complete(jobId, () -> TimetableDelta.ofStatus(version, SolverStatus.NOT_SOLVING));
+        LOGGER.error("Failed solving jobId ({}).", jobId, exception);
+        metrics.solvingEnded(jobId);
+        startAdmitted(admissionQueue.release(jobId));
+    }
+
+    private static TimetableDelta latestChanges(Job job, SolverStatus solverStatus) {
+        return job.solution().changesSince(job.solution().version() - 1, solverStatus);
+    }
+}
@@ -0,0 +1,94 @@
+package org.acme.schooltimetabling.rest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import ai.timefold.solver.core.api.solver.SolverStatus;
+
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.Timetable;
+import org.acme.schooltimetabling.rest.TimetableDelta.SessionAssignment;
+
+// A solution of a job with a version that increases with every new best solution.
+// Remembers for each session the version in which its assignment last changed, so that the changes since any version
+// are found in one pass over the sessions, without keeping the older solutions around.
+public final class VersionedTimetable {
+
+    private final Timetable timetable;
+    private final long version;
+    // Version in which the set of sessions last changed, older versions can only get a complete snapshot
+    private final long sessionsVersion;
+    // Aligned with timetable.getSessions()
+    private final long[] assignmentVersions;
+
+    private VersionedTimetable(Timetable timetable, long version, long sessionsVersion, long[] assignmentVersions) {
+        this.timetable = timetable;
+        this.version = version;
+        this.sessionsVersion = sessionsVersion;
+        this.assignmentVersions = assignmentVersions;
+    }
+
+    public static VersionedTimetable of(Timetable timetable) {
+        return new VersionedTimetable(timetable, 0L, 0L, new long[timetable.getSessions().size()]);
+    }
+
+    public Timetable timetable() {
+        return timetable;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public VersionedTimetable next(Timetable nextTimetable) {
+        if (nextTimetable == timetable) {
+            return this;
+        }
+        long nextVersion = version + 1;
+        List<Session> sessions = timetable.getSessions();
+        List<Session> nextSessions = nextTimetable.getSessions();
+        long[] nextAssignmentVersions = new long[nextSessions.size()];
+        if (!haveSameSessions(sessions, nextSessions)) {
+            Arrays.fill(nextAssignmentVersions, nextVersion);
+            return new VersionedTimetable(nextTimetable, nextVersion, nextVersion, nextAssignmentVersions);
+        }
+        for (int i = 0; i < nextAssignmentVersions.length; i++) {
+            nextAssignmentVersions[i] = haveSameAssignment(sessions.get(i), nextSessions.get(i))
+                    ? assignmentVersions[i]
+                    : nextVersion;
+        }
+        return new VersionedTimetable(nextTimetable, nextVersion, sessionsVersion, nextAssignmentVersions);
+    }
+
+    // A negative, unknown or too old version gets a complete snapshot of every session
+    public TimetableDelta changesSince(long sinceVersion, SolverStatus solverStatus) {
+        boolean complete = sinceVersion < 0 || sinceVersion < sessionsVersion || sinceVersion > version;
+        List<Session> sessions = timetable.getSessions();
+        List<SessionAssignment> changedSessions = new ArrayList<>();
+        for (int i = 0; i < assignmentVersions.length; i++) {
+            if (complete || assignmentVersions[i] > sinceVersion) {
+                changedSessions.add(SessionAssignment.of(sessions.get(i)));
+            }
+        }
+        return new TimetableDelta(version, complete, timetable.getScore(), solverStatus, changedSessions);
+    }
+
+    private static boolean haveSameSessions(List<Session> sessions, List<Session> otherSessions) {
+        if (sessions.size() != otherSessions.size()) {
+            return false;
+        }
+        for (int i = 0; i < sessions.size(); i++) {
+            if (!sessions.get(i).getId().equals(otherSessions.get(i).getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Slots and local contacts are problem facts, shared by every clone of the solution
+    private static boolean haveSameAssignment(Session session, Session otherSession) {
+        return session.getBeamtimeSlot() == otherSession.getBeamtimeSlot()
+                && session.getLocalContact() == otherSession.getLocalContact();
+    }
+}
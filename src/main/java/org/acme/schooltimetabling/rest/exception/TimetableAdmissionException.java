@@ -0,0 +1,21 @@
+package org.acme.schooltimetabling.rest.exception;
+
+import java.time.Duration;
+
+import jakarta.ws.rs.core.Response;
+
+public class TimetableAdmissionException extends TimetableSolverException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public TimetableAdmissionException(String jobId, Duration retryAfter, String message) {
+        super(jobId, Response.Status.TOO_MANY_REQUESTS, message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.ws.rs.core.Response;
 
 public class TimetableSolverException extends RuntimeException {
 
+    private static final long serialVersionUID = 1L;
+
     private final String jobId;
 
     private final Response.Status status;
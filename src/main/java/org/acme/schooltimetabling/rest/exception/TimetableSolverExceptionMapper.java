@@ -1,5 +1,6 @@
 package org.acme.schooltimetabling.rest.exception;
 
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
@@ -10,10 +11,13 @@ public class TimetableSolverExceptionMapper implements ExceptionMapper<Timetable
 
     @Override
     public Response toResponse(TimetableSolverException exception) {
-        return Response
+        Response.ResponseBuilder response = Response
                 .status(exception.getStatus())
                 .type(MediaType.APPLICATION_JSON)
-                .entity(new ErrorInfo(exception.getJobId(), exception.getMessage()))
-                .build();
+                .entity(new ErrorInfo(exception.getJobId(), exception.getMessage()));
+        if (exception instanceof TimetableAdmissionException admissionException) {
+            response.header(HttpHeaders.RETRY_AFTER, admissionException.getRetryAfter().toSeconds());
+        }
+        return response.build();
     }
 }
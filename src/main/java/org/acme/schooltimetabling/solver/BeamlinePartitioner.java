@@ -0,0 +1,68 @@
+package org.acme.schooltimetabling.solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.LocalContact;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.Timetable;
+
+// Splits a timetable into one subproblem per beamline, and merges the solved subproblems back.
+// Sessions and local contacts are bound to a beamline, so a subproblem only misses the cross-beamline terms,
+// such as fair local contact assignments and proposal conflicts, left to a polish phase on the merged result.
+public final class BeamlinePartitioner {
+
+  private BeamlinePartitioner() {
+  }
+
+  // The subproblems share the facts and the sessions of the original timetable, the solver only plans on clones
+  public static List<Timetable> split(Timetable timetable) {
+    var partitions = new ArrayList<Timetable>(timetable.getBeamlines().size());
+    for (Beamline beamline : timetable.getBeamlines()) {
+      List<Session> sessions = timetable.getSessions()
+                                        .stream()
+                                        .filter(session -> beamline.equals(session.getBeamline()))
+                                        .toList();
+      if (sessions.isEmpty()) {
+        continue;
+      }
+      List<LocalContact> localContacts = timetable.getLocalContacts()
+                                                  .stream()
+                                                  .filter(localContact -> beamline.equals(localContact.getBeamline()))
+                                                  .toList();
+      var partition = new Timetable(timetable.getName() + "/" + beamline.getId(),
+                                    timetable.getBeamtimeSlots(),
+                                    List.of(beamline),
+                                    sessions,
+                                    localContacts);
+      partition.setPhaseTimeListener(timetable.getPhaseTimeListener());
+      partitions.add(partition);
+    }
+    return partitions;
+  }
+
+  // Sessions missing from the partitions keep their assignment from the original timetable
+  public static Timetable merge(Timetable timetable, List<Timetable> partitions) {
+    Map<String, Session> solvedSessionsById = new HashMap<>();
+    for (Timetable partition : partitions) {
+      for (Session session : partition.getSessions()) {
+        solvedSessionsById.put(session.getId(), session);
+      }
+    }
+    var sessions = new ArrayList<Session>(timetable.getSessions().size());
+    for (Session session : timetable.getSessions()) {
+      sessions.add(solvedSessionsById.getOrDefault(session.getId(), session));
+    }
+    var merged = new Timetable(timetable.getName(),
+                               timetable.getBeamtimeSlots(),
+                               timetable.getBeamlines(),
+                               sessions,
+                               timetable.getLocalContacts(),
+                               timetable.getStaffMembers());
+    merged.setPhaseTimeListener(timetable.getPhaseTimeListener());
+    return merged;
+  }
+}
@@ -0,0 +1,133 @@
+package org.acme.schooltimetabling.solver;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.phase.custom.CustomPhaseCommand;
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.DatePreferenceIndex;
+import org.acme.schooltimetabling.domain.LocalContact;
+import org.acme.schooltimetabling.domain.Proposal;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.Timetable;
+
+// Domain-aware first phase: places the unassigned sessions of each proposal on a beamline as one block of consecutive
+// slots in the value ranges of the sessions, free on the beamline and for the proposal, and not on an unacceptable day.
+// Acceptable days are tried first. Then the local contacts are handed out round-robin per beamline.
+// Sessions it can not place are left to the construction heuristic that follows it, pinned and assigned sessions are kept.
+public class ContiguousSessionInitializer implements CustomPhaseCommand<Timetable> {
+
+  private record Group(Proposal proposal, Beamline beamline) {
+  }
+
+  @Override
+  public void changeWorkingSolution(ScoreDirector<Timetable> scoreDirector) {
+    Timetable timetable = scoreDirector.getWorkingSolution();
+    Map<Beamline, Set<BeamtimeSlot>> occupiedSlotsByBeamline = new HashMap<>();
+    Map<Proposal, Set<BeamtimeSlot>> occupiedSlotsByProposal = new HashMap<>();
+    Map<Group, List<Session>> unassignedSessionsByGroup = new LinkedHashMap<>();
+    for (Session session : timetable.getSessions()) {
+      if (session.getBeamtimeSlot() != null) {
+        occupiedSlotsByBeamline.computeIfAbsent(session.getBeamline(), beamline -> new HashSet<>()).add(session.getBeamtimeSlot());
+        occupiedSlotsByProposal.computeIfAbsent(session.getProposal(), proposal -> new HashSet<>()).add(session.getBeamtimeSlot());
+      } else if (!session.isPinned()) {
+        unassignedSessionsByGroup.computeIfAbsent(new Group(session.getProposal(), session.getBeamline()), group -> new ArrayList<>())
+                                 .add(session);
+      }
+    }
+
+    // Sorted once per value range, the sessions of a beam mode usually share one
+    Map<List<BeamtimeSlot>, List<BeamtimeSlot>> sortedSlotsByRange = new IdentityHashMap<>();
+    // The largest blocks first, while there is still room for them
+    List<Map.Entry<Group, List<Session>>> groups = new ArrayList<>(unassignedSessionsByGroup.entrySet());
+    groups.sort(Comparator.comparingInt((Map.Entry<Group, List<Session>> entry) -> entry.getValue().size()).reversed());
+    for (var entry : groups) {
+      Group group = entry.getKey();
+      List<Session> sessions = entry.getValue();
+      Set<BeamtimeSlot> beamlineSlots = occupiedSlotsByBeamline.computeIfAbsent(group.beamline(), beamline -> new HashSet<>());
+      Set<BeamtimeSlot> proposalSlots = occupiedSlotsByProposal.computeIfAbsent(group.proposal(), proposal -> new HashSet<>());
+      DatePreferenceIndex datePreferenceIndex = group.proposal().getDatePreferenceIndex();
+      Predicate<BeamtimeSlot> free = beamtimeSlot -> !beamlineSlots.contains(beamtimeSlot)
+          && !proposalSlots.contains(beamtimeSlot)
+          && !datePreferenceIndex.isUnacceptable(beamtimeSlot.getEpochDay());
+      Predicate<BeamtimeSlot> preferred = free.and(beamtimeSlot -> datePreferenceIndex.isAcceptable(beamtimeSlot.getEpochDay()));
+      List<BeamtimeSlot> beamtimeSlots = candidateSlots(sessions, sortedSlotsByRange);
+
+      List<BeamtimeSlot> block = findBlock(beamtimeSlots, sessions.size(), preferred);
+      if (block == null) {
+        block = findBlock(beamtimeSlots, sessions.size(), free);
+      }
+      if (block == null) {
+        // No room for one block: the first free slots, if any
+        block = beamtimeSlots.stream().filter(free).limit(sessions.size()).toList();
+      }
+      for (int i = 0; i < block.size(); i++) {
+        Session session = sessions.get(i);
+        BeamtimeSlot beamtimeSlot = block.get(i);
+        scoreDirector.beforeVariableChanged(session, "beamtimeSlot");
+        session.setBeamtimeSlot(beamtimeSlot);
+        scoreDirector.afterVariableChanged(session, "beamtimeSlot");
+        beamlineSlots.add(beamtimeSlot);
+        proposalSlots.add(beamtimeSlot);
+      }
+    }
+
+    Map<Beamline, Integer> nextLocalContactByBeamline = new HashMap<>();
+    for (Session session : timetable.getSessions()) {
+      List<LocalContact> localContacts = session.getLocalContactRange();
+      if (session.isPinned() || session.getLocalContact() != null || localContacts == null || localContacts.isEmpty()) {
+        continue;
+      }
+      int next = nextLocalContactByBeamline.merge(session.getBeamline(), 1, Integer::sum) - 1;
+      scoreDirector.beforeVariableChanged(session, "localContact");
+      session.setLocalContact(localContacts.get(next % localContacts.size()));
+      scoreDirector.afterVariableChanged(session, "localContact");
+    }
+    scoreDirector.triggerVariableListeners();
+  }
+
+  // The slots in the value ranges of all the sessions, in slot order
+  private static List<BeamtimeSlot> candidateSlots(List<Session> sessions,
+                                                   Map<List<BeamtimeSlot>, List<BeamtimeSlot>> sortedSlotsByRange) {
+    List<BeamtimeSlot> range = sessions.get(0).getBeamtimeSlotRange();
+    List<BeamtimeSlot> sortedSlots = sortedSlotsByRange.computeIfAbsent(range, range_ -> range_.stream()
+                                                                                             .sorted(Comparator.comparingLong(BeamtimeSlot::getIndex))
+                                                                                             .toList());
+    for (Session session : sessions) {
+      if (session.getBeamtimeSlotRange() != range) {
+        Set<BeamtimeSlot> otherRange = new HashSet<>(session.getBeamtimeSlotRange());
+        sortedSlots = sortedSlots.stream().filter(otherRange::contains).toList();
+      }
+    }
+    return sortedSlots;
+  }
+
+  // The first run of the given number of consecutive hours whose slots all match, or null
+  private static List<BeamtimeSlot> findBlock(List<BeamtimeSlot> sortedSlots, int size, Predicate<BeamtimeSlot> matches) {
+    int runStart = 0;
+    for (int i = 0; i < sortedSlots.size(); i++) {
+      BeamtimeSlot beamtimeSlot = sortedSlots.get(i);
+      if (!matches.test(beamtimeSlot)) {
+        runStart = i + 1;
+        continue;
+      }
+      if (i > runStart && beamtimeSlot.getIndex() != sortedSlots.get(i - 1).getIndex() + 1) {
+        runStart = i;
+      }
+      if (i - runStart + 1 == size) {
+        return sortedSlots.subList(runStart, i + 1);
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,43 @@
+package org.acme.schooltimetabling.solver;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.ObjLongConsumer;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.phase.custom.CustomPhaseCommand;
+import org.acme.schooltimetabling.domain.Timetable;
+
+// Empty custom phase that times the phases before it, as the solver manager takes no phase listener.
+// The first timer of the solver config only marks the start. Each next one passes the time since the previous mark,
+// with the name of the phase it follows, to the phase time listener of the solution's job, if it has one.
+// The last phase ends with the solver's termination, its time is the rest of Timefold's solve duration.
+public class PhaseTimer implements CustomPhaseCommand<Timetable> {
+
+  // By the score director, which a solver keeps for all its phases, unlike its working solution.
+  // Weak, so that the mark goes with the solver.
+  private static final Map<ScoreDirector<Timetable>, Long> PREVIOUS_MARK_NANOS =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  // Set from the custom properties of the custom phase, empty for the start mark
+  private String phase = "";
+
+  public void setPhase(String phase) {
+    this.phase = phase;
+  }
+
+  @Override
+  public void changeWorkingSolution(ScoreDirector<Timetable> scoreDirector) {
+    ObjLongConsumer<String> phaseTimeListener = scoreDirector.getWorkingSolution().getPhaseTimeListener();
+    if (phaseTimeListener == null) {
+      return;
+    }
+    long nowNanos = System.nanoTime();
+    Long previousMarkNanos = PREVIOUS_MARK_NANOS.put(scoreDirector, nowNanos);
+    if (phase.isEmpty() || previousMarkNanos == null) {
+      return;
+    }
+    phaseTimeListener.accept(phase, nowNanos - previousMarkNanos);
+  }
+}
@@ -0,0 +1,62 @@
+package org.acme.schooltimetabling.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ai.timefold.solver.core.config.localsearch.LocalSearchPhaseConfig;
+import ai.timefold.solver.core.config.localsearch.decider.acceptor.LocalSearchAcceptorConfig;
+import ai.timefold.solver.core.config.localsearch.decider.forager.LocalSearchForagerConfig;
+import ai.timefold.solver.core.config.phase.PhaseConfig;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+
+// Local search variants raced against each other by the portfolio solving mode, with the settings of the solver benchmark.
+// A strategy only replaces the acceptor and forager of the local search phases. The phases before them and the move
+// selectors stay as configured in solverConfig.xml.
+public enum PortfolioStrategy {
+
+  // The default local search
+  LATE_ACCEPTANCE(null, null),
+  TABU_SEARCH(new LocalSearchAcceptorConfig().withEntityTabuSize(7),
+              new LocalSearchForagerConfig().withAcceptedCountLimit(1000)),
+  SIMULATED_ANNEALING(new LocalSearchAcceptorConfig().withSimulatedAnnealingStartingTemperature("0hard/20soft"),
+                      new LocalSearchForagerConfig().withAcceptedCountLimit(1)),
+  GREAT_DELUGE(greatDelugeAcceptorConfig(0.00000005),
+               new LocalSearchForagerConfig().withAcceptedCountLimit(1));
+
+  private final LocalSearchAcceptorConfig acceptorConfig;
+
+  private final LocalSearchForagerConfig foragerConfig;
+
+  PortfolioStrategy(LocalSearchAcceptorConfig acceptorConfig, LocalSearchForagerConfig foragerConfig) {
+    this.acceptorConfig = acceptorConfig;
+    this.foragerConfig = foragerConfig;
+  }
+
+  // The acceptor config has no with method for the water level increment ratio
+  private static LocalSearchAcceptorConfig greatDelugeAcceptorConfig(double waterLevelIncrementRatio) {
+    LocalSearchAcceptorConfig acceptorConfig = new LocalSearchAcceptorConfig();
+    acceptorConfig.setGreatDelugeWaterLevelIncrementRatio(waterLevelIncrementRatio);
+    return acceptorConfig;
+  }
+
+  // A copy of the given config, which is left as is
+  public SolverConfig configure(SolverConfig solverConfig) {
+    SolverConfig strategyConfig = solverConfig.copyConfig();
+    if (acceptorConfig == null || strategyConfig.getPhaseConfigList() == null) {
+      return strategyConfig;
+    }
+    List<PhaseConfig<?>> phaseConfigs = new ArrayList<>(strategyConfig.getPhaseConfigList().size());
+    for (PhaseConfig<?> phaseConfig : strategyConfig.getPhaseConfigList()) {
+      if (phaseConfig instanceof LocalSearchPhaseConfig localSearchPhaseConfig) {
+        LocalSearchPhaseConfig strategyPhaseConfig = localSearchPhaseConfig.copyConfig();
+        strategyPhaseConfig.setLocalSearchType(null);
+        strategyPhaseConfig.setAcceptorConfig(acceptorConfig.copyConfig());
+        strategyPhaseConfig.setForagerConfig(foragerConfig.copyConfig());
+        phaseConfigs.add(strategyPhaseConfig);
+      } else {
+        phaseConfigs.add(phaseConfig);
+      }
+    }
+    return strategyConfig.withPhases(phaseConfigs.toArray(new PhaseConfig<?>[0]));
+  }
+}
@@ -0,0 +1,252 @@
+package org.acme.schooltimetabling.solver;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.acme.schooltimetabling.domain.BeamMode;
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.LocalContact;
+import org.acme.schooltimetabling.domain.Proposal;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.StaffMember;
+import org.acme.schooltimetabling.domain.Timetable;
+
+// Splits a long timetable into overlapping windows of days, solved one after the other.
+// A window problem only holds the beamtime slots of the window and the sessions planned into it, so the solver's
+// memory and move evaluation cost follow the window length instead of the full horizon.
+// The committed sessions of the lookback days before a window are added to it pinned, with their slots, so that the
+// proximity constraints still see their neighbours across the boundary. The lookback slots are pinned slots of the
+// window problem, so no session is planned into them. Sessions left in the overlap with the next
+// window are re-planned by that window.
+public final class RollingHorizon {
+
+  // Slots in [from, until), sessions planned before committedUntil are final once the window is solved
+  public record Window(int index, LocalDate from, LocalDate committedUntil, LocalDate until) {
+
+    boolean contains(BeamtimeSlot beamtimeSlot) {
+      return beamtimeSlot != null && !beamtimeSlot.getDate().isBefore(from) && beamtimeSlot.getDate().isBefore(until);
+    }
+
+    boolean commits(BeamtimeSlot beamtimeSlot) {
+      return beamtimeSlot != null && beamtimeSlot.getDate().isBefore(committedUntil);
+    }
+
+    boolean looksBackTo(BeamtimeSlot beamtimeSlot, int lookbackDays) {
+      return beamtimeSlot != null && beamtimeSlot.getDate().isBefore(from)
+             && !beamtimeSlot.getDate().isBefore(from.minusDays(lookbackDays));
+    }
+  }
+
+  private record Lane(Beamline beamline, BeamMode beamMode) {
+  }
+
+  private final Timetable timetable;
+
+  private final List<Window> windows;
+
+  // At least a day, so that a window also sees the sessions in the hours just before it
+  private final int lookbackDays;
+
+  private final List<List<Session>> newSessionsByWindow;
+
+  private final Map<String, Session> committedSessionsById = new HashMap<>();
+
+  private List<Session> carriedOverSessions = List.of();
+
+  public RollingHorizon(Timetable timetable, int windowDays, int overlapDays) {
+    if (overlapDays < 0 || windowDays <= overlapDays) {
+      throw new IllegalArgumentException("The window days (%d) must exceed the overlap days (%d), which must not be negative."
+                                             .formatted(windowDays, overlapDays));
+    }
+    this.timetable = timetable;
+    this.windows = createWindows(timetable.getBeamtimeSlots(), windowDays, overlapDays);
+    this.lookbackDays = Math.max(1, overlapDays);
+    this.newSessionsByWindow = windows.isEmpty() ? List.of() : allocateSessions();
+  }
+
+  public List<Window> getWindows() {
+    return windows;
+  }
+
+  private static List<Window> createWindows(List<BeamtimeSlot> beamtimeSlots, int windowDays, int overlapDays) {
+    if (beamtimeSlots.isEmpty()) {
+      return List.of();
+    }
+    LocalDate from = beamtimeSlots.stream().map(BeamtimeSlot::getDate).min(Comparator.naturalOrder()).orElseThrow();
+    LocalDate end = beamtimeSlots.stream().map(BeamtimeSlot::getDate).max(Comparator.naturalOrder()).orElseThrow()
+                                 .plusDays(1);
+    var windows = new ArrayList<Window>();
+    while (true) {
+      LocalDate until = from.plusDays(windowDays);
+      if (!until.isBefore(end)) {
+        windows.add(new Window(windows.size(), from, end, end));
+        return windows;
+      }
+      LocalDate committedUntil = until.minusDays(overlapDays);
+      windows.add(new Window(windows.size(), from, committedUntil, until));
+      from = committedUntil;
+    }
+  }
+
+  // Hands out the proposals, all sessions of a proposal together, to the first window from their first acceptable day
+  // with enough free slots on their beamline and beam mode, counting only the slots before the overlap.
+  // The proposals with the earliest acceptable days go first, those without any date preference fill the gaps.
+  private List<List<Session>> allocateSessions() {
+    Map<Proposal, List<Session>> sessionsByProposal = timetable.getSessions()
+                                                               .stream()
+                                                               .collect(Collectors.groupingBy(Session::getProposal,
+                                                                                              LinkedHashMap::new,
+                                                                                              Collectors.toList()));
+    List<Proposal> proposals = sessionsByProposal.keySet()
+                                                 .stream()
+                                                 .sorted(Comparator.comparingLong(proposal -> proposal.getDatePreferenceIndex()
+                                                                                                      .firstAcceptableEpochDay()))
+                                                 .toList();
+    var slotCountsByWindow = new ArrayList<Map<BeamMode, Long>>(windows.size());
+    var freeSlotCountsByWindow = new ArrayList<Map<Lane, Long>>(windows.size());
+    var newSessionsByWindow = new ArrayList<List<Session>>(windows.size());
+    for (Window window : windows) {
+      slotCountsByWindow.add(timetable.getBeamtimeSlots()
+                                      .stream()
+                                      .filter(beamtimeSlot -> window.contains(beamtimeSlot) && window.commits(beamtimeSlot))
+                                      .collect(Collectors.groupingBy(BeamtimeSlot::getBeamMode, Collectors.counting())));
+      freeSlotCountsByWindow.add(new HashMap<>());
+      newSessionsByWindow.add(new ArrayList<>());
+    }
+    for (Proposal proposal : proposals) {
+      List<Session> sessions = sessionsByProposal.get(proposal);
+      Map<Lane, Long> demand = sessions.stream()
+                                       .collect(Collectors.groupingBy(session -> new Lane(session.getBeamline(), proposal.getBeamMode()),
+                                                                      Collectors.counting()));
+      int windowIndex = windows.size() - 1;
+      for (int i = firstWindowIndex(proposal.getDatePreferenceIndex().firstAcceptableEpochDay()); i < windows.size(); i++) {
+        Map<BeamMode, Long> slotCounts = slotCountsByWindow.get(i);
+        Map<Lane, Long> freeSlotCounts = freeSlotCountsByWindow.get(i);
+        if (demand.entrySet()
+                  .stream()
+                  .allMatch(entry -> freeSlotCounts.getOrDefault(entry.getKey(), slotCounts.getOrDefault(entry.getKey().beamMode(), 0L))
+                                     >= entry.getValue())) {
+          windowIndex = i;
+          break;
+        }
+      }
+      Map<BeamMode, Long> slotCounts = slotCountsByWindow.get(windowIndex);
+      Map<Lane, Long> freeSlotCounts = freeSlotCountsByWindow.get(windowIndex);
+      demand.forEach((lane, count) -> freeSlotCounts.put(lane, freeSlotCounts.getOrDefault(lane, slotCounts.getOrDefault(lane.beamMode(), 0L))
+                                                               - count));
+      newSessionsByWindow.get(windowIndex).addAll(sessions);
+    }
+    return newSessionsByWindow;
+  }
+
+  private int firstWindowIndex(long epochDay) {
+    if (epochDay == Long.MAX_VALUE) {
+      return 0;
+    }
+    for (Window window : windows) {
+      if (epochDay < window.committedUntil().toEpochDay()) {
+        return window.index();
+      }
+    }
+    return windows.size() - 1;
+  }
+
+  // Copies the sessions instead of sharing them, so that pinning and clearing out-of-window slots leave the timetable as is.
+  // The sessions to plan keep to the window's own slots, the lookback slots only hold the pinned sessions.
+  // Only the staff members of the beamlines the window plans must get an assignment in it.
+  public synchronized Timetable createWindowProblem(Window window) {
+    var sessions = new ArrayList<Session>();
+    for (Session session : committedSessionsById.values()) {
+      if (window.looksBackTo(session.getBeamtimeSlot(), lookbackDays)) {
+        sessions.add(copy(session, session.getBeamtimeSlot(), true));
+      }
+    }
+    var plannedSessions = new ArrayList<Session>();
+    for (Session session : carriedOverSessions) {
+      plannedSessions.add(copy(session, window.contains(session.getBeamtimeSlot()) ? session.getBeamtimeSlot() : null, false));
+    }
+    for (Session session : newSessionsByWindow.get(window.index())) {
+      plannedSessions.add(copy(session, window.contains(session.getBeamtimeSlot()) ? session.getBeamtimeSlot() : null, false));
+    }
+    sessions.addAll(plannedSessions);
+    Set<Beamline> plannedBeamlines = new HashSet<>();
+    plannedSessions.forEach(session -> plannedBeamlines.add(session.getBeamline()));
+    List<StaffMember> staffMembers = timetable.getLocalContacts()
+                                              .stream()
+                                              .filter(localContact -> plannedBeamlines.contains(localContact.getBeamline()))
+                                              .map(LocalContact::getStaffMember)
+                                              .distinct()
+                                              .toList();
+    var windowProblem = new Timetable(timetable.getName() + "/" + window.from(),
+                                      timetable.getBeamtimeSlots().stream().filter(window::contains).toList(),
+                                      timetable.getBeamlines(),
+                                      sessions,
+                                      timetable.getLocalContacts(),
+                                      staffMembers);
+    windowProblem.setPinnedBeamtimeSlots(timetable.getBeamtimeSlots()
+                                                  .stream()
+                                                  .filter(beamtimeSlot -> window.looksBackTo(beamtimeSlot, lookbackDays))
+                                                  .toList());
+    windowProblem.setPhaseTimeListener(timetable.getPhaseTimeListener());
+    return windowProblem;
+  }
+
+  private static Session copy(Session session, BeamtimeSlot beamtimeSlot, boolean pinned) {
+    var copy = new Session();
+    copy.setId(session.getId());
+    copy.setProposal(session.getProposal());
+    copy.setBeamline(session.getBeamline());
+    copy.setBeamtimeSlot(beamtimeSlot);
+    copy.setLocalContact(session.getLocalContact());
+    copy.setPinned(pinned);
+    return copy;
+  }
+
+  // Commits the sessions the window planned before its overlap with the next window, the last window commits all
+  public synchronized void commit(Window window, Timetable solvedWindow) {
+    var lastWindow = window.index() == windows.size() - 1;
+    var carriedOverSessions = new ArrayList<Session>();
+    for (Session session : solvedWindow.getSessions()) {
+      if (session.isPinned()) {
+        continue;
+      }
+      if (lastWindow || window.commits(session.getBeamtimeSlot())) {
+        committedSessionsById.put(session.getId(), session);
+      } else {
+        carriedOverSessions.add(session);
+      }
+    }
+    this.carriedOverSessions = carriedOverSessions;
+  }
+
+  // The whole timetable with the committed sessions, then the given window's sessions (if any) or the carried over ones,
+  // and the sessions of the windows not solved yet as they were submitted
+  public synchronized Timetable merge(Timetable solvedWindow) {
+    Map<String, Session> plannedSessionsById = new HashMap<>();
+    for (Session session : solvedWindow == null ? carriedOverSessions : solvedWindow.getSessions()) {
+      if (!session.isPinned()) {
+        plannedSessionsById.put(session.getId(), session);
+      }
+    }
+    plannedSessionsById.putAll(committedSessionsById);
+    var sessions = new ArrayList<Session>(timetable.getSessions().size());
+    for (Session session : timetable.getSessions()) {
+      sessions.add(plannedSessionsById.getOrDefault(session.getId(), session));
+    }
+    return new Timetable(timetable.getName(),
+                         timetable.getBeamtimeSlots(),
+                         timetable.getBeamlines(),
+                         sessions,
+                         timetable.getLocalContacts(),
+                         timetable.getStaffMembers());
+  }
+}
@@ -0,0 +1,87 @@
+package org.acme.schooltimetabling.solver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.move.AbstractMove;
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.Timetable;
+
+// Moves several sessions at once, session i to beamtime slot i.
+// A block change moves a run of consecutive sessions to another block of slots, a block swap exchanges the slots of
+// two runs, so that the adjacency rewards are kept instead of broken by the first of several single moves.
+// The score director records the variable changes to undo the move, so it needs no undo move of its own.
+public class SessionBlockMove extends AbstractMove<Timetable> {
+
+  private final List<Session> sessions;
+
+  private final List<BeamtimeSlot> beamtimeSlots;
+
+  public SessionBlockMove(List<Session> sessions, List<BeamtimeSlot> beamtimeSlots) {
+    this.sessions = sessions;
+    this.beamtimeSlots = beamtimeSlots;
+  }
+
+  @Override
+  public boolean isMoveDoable(ScoreDirector<Timetable> scoreDirector) {
+    for (int i = 0; i < sessions.size(); i++) {
+      if (sessions.get(i).getBeamtimeSlot() != beamtimeSlots.get(i)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  protected void doMoveOnGenuineVariables(ScoreDirector<Timetable> scoreDirector) {
+    for (int i = 0; i < sessions.size(); i++) {
+      Session session = sessions.get(i);
+      scoreDirector.beforeVariableChanged(session, "beamtimeSlot");
+      session.setBeamtimeSlot(beamtimeSlots.get(i));
+      scoreDirector.afterVariableChanged(session, "beamtimeSlot");
+    }
+  }
+
+  @Override
+  public SessionBlockMove rebase(ScoreDirector<Timetable> destinationScoreDirector) {
+    var rebasedSessions = new ArrayList<Session>(sessions.size());
+    var rebasedBeamtimeSlots = new ArrayList<BeamtimeSlot>(beamtimeSlots.size());
+    for (int i = 0; i < sessions.size(); i++) {
+      rebasedSessions.add(destinationScoreDirector.lookUpWorkingObject(sessions.get(i)));
+      rebasedBeamtimeSlots.add(destinationScoreDirector.lookUpWorkingObject(beamtimeSlots.get(i)));
+    }
+    return new SessionBlockMove(rebasedSessions, rebasedBeamtimeSlots);
+  }
+
+  @Override
+  public Collection<Session> getPlanningEntities() {
+    return sessions;
+  }
+
+  @Override
+  public Collection<BeamtimeSlot> getPlanningValues() {
+    return new LinkedHashSet<>(beamtimeSlots);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other || (other instanceof SessionBlockMove move
+        && sessions.equals(move.sessions)
+        && beamtimeSlots.equals(move.beamtimeSlots));
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(sessions, beamtimeSlots);
+  }
+
+  @Override
+  public String toString() {
+    return sessions + " {" + sessions.stream().map(Session::getBeamtimeSlot).toList() + " -> " + beamtimeSlots + "}";
+  }
+}
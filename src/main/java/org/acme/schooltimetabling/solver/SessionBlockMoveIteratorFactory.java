@@ -0,0 +1,278 @@
+package org.acme.schooltimetabling.solver;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import ai.timefold.solver.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+import org.acme.schooltimetabling.domain.BeamMode;
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.Proposal;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.Timetable;
+
+// Block changes and block swaps of consecutive sessions of a proposal on a beamline.
+// A random move starts from a random session and takes a random sub-run of the consecutive sessions around it. Half of
+// the moves shift that run to a random block of consecutive slots of the same beam mode, the others swap it with such
+// a run of another proposal. In original order, each whole run is shifted to every block, then swapped with every run
+// of the other proposals of its beam mode. Every moved session keeps to its value range.
+// The groups and slot lists are built once per phase. The runs depend on the current slots, so the sessions of a group
+// are sorted once per step, by the iterator of that step.
+public class SessionBlockMoveIteratorFactory implements MoveIteratorFactory<Timetable, SessionBlockMove> {
+
+  private record Group(Proposal proposal, Beamline beamline) {
+  }
+
+  // The positions of a proposal's sessions in the session list of its beam mode, from inclusive, to exclusive
+  private record Range(int from, int to) {
+  }
+
+  private List<Session> movableSessions;
+
+  private Map<Group, List<Session>> sessionsByGroup;
+
+  // The sessions of a proposal are next to each other
+  private Map<BeamMode, List<Session>> sessionsByBeamMode;
+
+  private Map<Proposal, Range> rangesByProposal;
+
+  private Map<Session, Integer> positionsInBeamMode;
+
+  // Per value range, the sessions of a beam mode usually share one
+  private Map<List<BeamtimeSlot>, List<BeamtimeSlot>> sortedSlotsByRange;
+
+  private Map<List<BeamtimeSlot>, Set<BeamtimeSlot>> slotSetsByRange;
+
+  @Override
+  public void phaseStarted(ScoreDirector<Timetable> scoreDirector) {
+    Timetable timetable = scoreDirector.getWorkingSolution();
+    movableSessions = new ArrayList<>();
+    sessionsByGroup = new HashMap<>();
+    Map<Proposal, List<Session>> sessionsByProposal = new LinkedHashMap<>();
+    for (Session session : timetable.getSessions()) {
+      if (session.isPinned()) {
+        continue;
+      }
+      movableSessions.add(session);
+      sessionsByGroup.computeIfAbsent(new Group(session.getProposal(), session.getBeamline()), group -> new ArrayList<>())
+                     .add(session);
+      sessionsByProposal.computeIfAbsent(session.getProposal(), proposal -> new ArrayList<>()).add(session);
+    }
+    sessionsByBeamMode = new HashMap<>();
+    rangesByProposal = new HashMap<>();
+    positionsInBeamMode = new IdentityHashMap<>();
+    sessionsByProposal.forEach((proposal, sessions) -> {
+      List<Session> sessionsOfBeamMode = sessionsByBeamMode.computeIfAbsent(proposal.getBeamMode(),
+                                                                            beamMode -> new ArrayList<>());
+      rangesByProposal.put(proposal, new Range(sessionsOfBeamMode.size(), sessionsOfBeamMode.size() + sessions.size()));
+      for (Session session : sessions) {
+        positionsInBeamMode.put(session, sessionsOfBeamMode.size());
+        sessionsOfBeamMode.add(session);
+      }
+    });
+    sortedSlotsByRange = new IdentityHashMap<>();
+    slotSetsByRange = new IdentityHashMap<>();
+    for (Session session : movableSessions) {
+      sortedSlotsByRange.computeIfAbsent(session.getBeamtimeSlotRange(), range -> range.stream()
+                                                                                    .sorted(Comparator.comparingLong(BeamtimeSlot::getIndex))
+                                                                                    .toList());
+      slotSetsByRange.computeIfAbsent(session.getBeamtimeSlotRange(), HashSet::new);
+    }
+  }
+
+  @Override
+  public void phaseEnded(ScoreDirector<Timetable> scoreDirector) {
+    movableSessions = null;
+    sessionsByGroup = null;
+    sessionsByBeamMode = null;
+    rangesByProposal = null;
+    positionsInBeamMode = null;
+    sortedSlotsByRange = null;
+    slotSetsByRange = null;
+  }
+
+  @Override
+  public long getSize(ScoreDirector<Timetable> scoreDirector) {
+    return (long) movableSessions.size() * movableSessions.size();
+  }
+
+  // Each run once, from its first session. A swap is only generated from the run whose first session comes first.
+  @Override
+  public Iterator<SessionBlockMove> createOriginalMoveIterator(ScoreDirector<Timetable> scoreDirector) {
+    var runs = new Runs();
+    return movableSessions.stream()
+                          .flatMap(session -> {
+                            List<Session> run = runs.around(session);
+                            if (run.isEmpty() || run.get(0) != session) {
+                              return Stream.empty();
+                            }
+                            return Stream.concat(blockChanges(run), blockSwaps(run, runs));
+                          })
+                          .iterator();
+  }
+
+  private Stream<SessionBlockMove> blockChanges(List<Session> run) {
+    List<BeamtimeSlot> sortedSlots = sortedSlots(run);
+    return IntStream.rangeClosed(0, sortedSlots.size() - run.size())
+                    .mapToObj(start -> blockChange(run, sortedSlots, start))
+                    .filter(move -> !move.getPlanningEntities().isEmpty());
+  }
+
+  private Stream<SessionBlockMove> blockSwaps(List<Session> run, Runs runs) {
+    Session first = run.get(0);
+    Range range = rangesByProposal.get(first.getProposal());
+    return sessionsByBeamMode.get(first.getProposal().getBeamMode())
+                             .stream()
+                             .filter(otherSession -> {
+                               int position = positionsInBeamMode.get(otherSession);
+                               return position >= range.to();
+                             })
+                             .map(runs::around)
+                             .filter(otherRun -> !otherRun.isEmpty())
+                             .distinct()
+                             .map(otherRun -> blockSwap(run, otherRun))
+                             .filter(move -> !move.getPlanningEntities().isEmpty());
+  }
+
+  @Override
+  public Iterator<SessionBlockMove> createRandomMoveIterator(ScoreDirector<Timetable> scoreDirector, Random workingRandom) {
+    var runs = new Runs();
+    return new Iterator<>() {
+
+      @Override
+      public boolean hasNext() {
+        return !movableSessions.isEmpty();
+      }
+
+      @Override
+      public SessionBlockMove next() {
+        Session session = movableSessions.get(workingRandom.nextInt(movableSessions.size()));
+        List<Session> run = randomSubRun(runs.around(session), session, workingRandom);
+        BeamMode beamMode = session.getProposal().getBeamMode();
+        List<Session> sessionsOfBeamMode = sessionsByBeamMode.get(beamMode);
+        Range range = rangesByProposal.get(session.getProposal());
+        int otherSessionCount = sessionsOfBeamMode.size() - (range.to() - range.from());
+        if (run.isEmpty() || otherSessionCount == 0 || workingRandom.nextBoolean()) {
+          List<BeamtimeSlot> sortedSlots = run.isEmpty() ? List.of() : sortedSlots(run);
+          if (run.isEmpty() || sortedSlots.size() < run.size()) {
+            return new SessionBlockMove(List.of(), List.of());
+          }
+          return blockChange(run, sortedSlots, workingRandom.nextInt(sortedSlots.size() - run.size() + 1));
+        }
+        // A random session of another proposal: skips over the positions of the session's own proposal
+        int position = workingRandom.nextInt(otherSessionCount);
+        Session otherSession = sessionsOfBeamMode.get(position < range.from() ? position
+                                                                              : position + range.to() - range.from());
+        List<Session> otherRun = randomSubRun(runs.around(otherSession), otherSession, workingRandom);
+        return blockSwap(run, otherRun);
+      }
+    };
+  }
+
+  // The sessions of each group in slot order, sorted when a group is first needed by the iterator of a step.
+  // Moves are undone before the next one is generated, so the slots stay as they were at the start of the step.
+  private final class Runs {
+
+    private final Map<Group, List<Session>> sortedSessionsByGroup = new HashMap<>();
+
+    // The sessions of the same proposal and beamline in consecutive hours around the given one, in slot order
+    List<Session> around(Session session) {
+      if (session.getBeamtimeSlot() == null) {
+        return List.of();
+      }
+      List<Session> sessions = sortedSessionsByGroup.computeIfAbsent(new Group(session.getProposal(), session.getBeamline()),
+                                                                     group -> sessionsByGroup.get(group)
+                                                                                             .stream()
+                                                                                             .filter(session_ -> session_.getBeamtimeSlot() != null)
+                                                                                             .sorted(Comparator.comparingLong(session_ -> session_.getBeamtimeSlot()
+                                                                                                                                                  .getIndex()))
+                                                                                             .toList());
+      int position = sessions.indexOf(session);
+      int first = position;
+      while (first > 0 && isConsecutive(sessions.get(first - 1), sessions.get(first))) {
+        first--;
+      }
+      int last = position;
+      while (last < sessions.size() - 1 && isConsecutive(sessions.get(last), sessions.get(last + 1))) {
+        last++;
+      }
+      return sessions.subList(first, last + 1);
+    }
+  }
+
+  // The slots in the value ranges of all the sessions of the run, in slot order
+  private List<BeamtimeSlot> sortedSlots(List<Session> run) {
+    List<BeamtimeSlot> range = run.get(0).getBeamtimeSlotRange();
+    List<BeamtimeSlot> sortedSlots = sortedSlotsByRange.get(range);
+    for (Session session : run) {
+      if (session.getBeamtimeSlotRange() != range) {
+        Set<BeamtimeSlot> otherRange = slotSetsByRange.get(session.getBeamtimeSlotRange());
+        sortedSlots = sortedSlots.stream().filter(otherRange::contains).toList();
+      }
+    }
+    return sortedSlots;
+  }
+
+  private static boolean isConsecutive(Session session, Session nextSession) {
+    return nextSession.getBeamtimeSlot().getIndex() == session.getBeamtimeSlot().getIndex() + 1;
+  }
+
+  private static List<Session> randomSubRun(List<Session> run, Session session, Random workingRandom) {
+    if (run.size() <= 1) {
+      return run;
+    }
+    int position = run.indexOf(session);
+    int first = workingRandom.nextInt(position + 1);
+    int last = position + workingRandom.nextInt(run.size() - position);
+    return run.subList(first, last + 1);
+  }
+
+  // No block of consecutive slots at the start gives a move that is not doable
+  private static SessionBlockMove blockChange(List<Session> run, List<BeamtimeSlot> sortedSlots, int start) {
+    List<BeamtimeSlot> block = sortedSlots.subList(start, start + run.size());
+    for (int i = 1; i < block.size(); i++) {
+      if (block.get(i).getIndex() != block.get(i - 1).getIndex() + 1) {
+        return new SessionBlockMove(List.of(), List.of());
+      }
+    }
+    return new SessionBlockMove(List.copyOf(run), List.copyOf(block));
+  }
+
+  // Swaps the first hours of both runs, as many as the shorter one has.
+  // A slot outside the value range of the session that would get it gives a move that is not doable.
+  private SessionBlockMove blockSwap(List<Session> run, List<Session> otherRun) {
+    int size = Math.min(run.size(), otherRun.size());
+    if (size == 0) {
+      return new SessionBlockMove(List.of(), List.of());
+    }
+    for (int i = 0; i < size; i++) {
+      if (!slotSetsByRange.get(run.get(i).getBeamtimeSlotRange()).contains(otherRun.get(i).getBeamtimeSlot())
+          || !slotSetsByRange.get(otherRun.get(i).getBeamtimeSlotRange()).contains(run.get(i).getBeamtimeSlot())) {
+        return new SessionBlockMove(List.of(), List.of());
+      }
+    }
+    var sessions = new ArrayList<Session>(2 * size);
+    var beamtimeSlots = new ArrayList<BeamtimeSlot>(2 * size);
+    for (int i = 0; i < size; i++) {
+      sessions.add(run.get(i));
+      beamtimeSlots.add(otherRun.get(i).getBeamtimeSlot());
+    }
+    for (int i = 0; i < size; i++) {
+      sessions.add(otherRun.get(i));
+      beamtimeSlots.add(run.get(i).getBeamtimeSlot());
+    }
+    return new SessionBlockMove(sessions, beamtimeSlots);
+  }
+}
@@ -0,0 +1,66 @@
+package org.acme.schooltimetabling.solver;
+
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import ai.timefold.solver.core.api.score.stream.uni.UniConstraintCollector;
+import org.acme.schooltimetabling.domain.Session;
+
+// Incrementally tracks the first and last beamtime slot index of a group of sessions.
+// Inserting or retracting a session costs O(log k) for a group of k sessions.
+final class SessionSpanCollector
+    implements UniConstraintCollector<Session, SessionSpanCollector.Container, SessionSpanCollector.Span> {
+
+  @Override
+  public Supplier<Container> supplier() {
+    return Container::new;
+  }
+
+  @Override
+  public BiFunction<Container, Session, Runnable> accumulator() {
+    return (container, session) -> {
+      var index = session.getBeamtimeSlot()
+                         .getIndex();
+      container.add(index);
+      return () -> container.remove(index);
+    };
+  }
+
+  @Override
+  public Function<Container, Span> finisher() {
+    return Container::toSpan;
+  }
+
+  record Span(long firstIndex, long lastIndex, int count) {
+
+    static final Span EMPTY = new Span(0L, 0L, 0);
+
+    long length() {
+      return lastIndex - firstIndex;
+    }
+  }
+
+  static final class Container {
+
+    // Multiset of slot indexes, several sessions may share a slot
+    private final TreeMap<Long, Integer> indexCounts = new TreeMap<>();
+
+    private int count;
+
+    void add(long index) {
+      indexCounts.merge(index, 1, Integer::sum);
+      count++;
+    }
+
+    void remove(long index) {
+      indexCounts.computeIfPresent(index, (key, indexCount) -> indexCount == 1 ? null : indexCount - 1);
+      count--;
+    }
+
+    Span toSpan() {
+      return count == 0 ? Span.EMPTY : new Span(indexCounts.firstKey(), indexCounts.lastKey(), count);
+    }
+  }
+}
@@ -24,7 +24,6 @@ public class TimetableConstraintProvider implements ConstraintProvider {
         proposalConflict(constraintFactory),
         beamModeConflict(constraintFactory),
         proposalUnacceptableDates(constraintFactory),
-        localContactBeamlineConflict(constraintFactory),
         fairLocalContactAssignments(constraintFactory),
         preventLocalContactWithoutAnyAssignment(constraintFactory),
 
@@ -53,27 +52,11 @@ public class TimetableConstraintProvider implements ConstraintProvider {
   Constraint beamModeConflict(ConstraintFactory constraintFactory) {
     return constraintFactory
         .forEach(Session.class)
-        .filter(session -> !session.getBeamtimeSlot()
-                                   .getBeamMode()
-                                   .equals(session.getProposal()
-                                                  .getBeamMode()))
+        .filter(session -> session.getBeamtimeSlot().getBeamMode() != session.getProposal().getBeamMode())
         .penalize(HardSoftScore.ONE_HARD)
         .asConstraint("Session mode");
   }
 
-  Constraint localContactBeamlineConflict(ConstraintFactory constraintFactory) {
-    return constraintFactory
-        .forEach(Session.class)
-        .filter(session -> !session.getLocalContact()
-                                   .getBeamline()
-                                   .getId()
-                                   .equals(session.getBeamline()
-                                                  .getId()))
-        .penalize(HardSoftScore.ONE_HARD)
-        .asConstraint("Local contact beamline");
-  }
-
-
   Constraint fairLocalContactAssignments(ConstraintFactory constraintFactory) {
     return constraintFactory.forEach(Session.class)
                             .groupBy(ConstraintCollectors.loadBalance(session -> session.getLocalContact()
@@ -83,12 +66,14 @@ public class TimetableConstraintProvider implements ConstraintProvider {
                             .asConstraint("fair local contact assignments");
   }
 
+  // Indexed by staff member, so a session change only looks up the sessions of its own staff member,
+  // instead of checking every staff member against every session
   Constraint preventLocalContactWithoutAnyAssignment(ConstraintFactory constraintFactory) {
     return constraintFactory.forEach(StaffMember.class)
                             .ifNotExists(Session.class,
-                                         Joiners.filtering((staffMember, session) -> session.getLocalContact()
-                                                                                            .getStaffMember()
-                                                                                            .equals(staffMember)))
+                                         Joiners.equal(staffMember -> staffMember,
+                                                       session -> session.getLocalContact()
+                                                                         .getStaffMember()))
                             .penalize(HardSoftScore.ONE_HARD)
                             .asConstraint("prevent localContact without any assignment");
   }
@@ -96,7 +81,6 @@ public class TimetableConstraintProvider implements ConstraintProvider {
   Constraint proposalUnacceptableDates(ConstraintFactory constraintFactory) {
     return constraintFactory
         .forEach(Session.class)
-        .filter(this::isSessionWithDatePrefs)
         .filter(this::isSessionDateUnacceptable)
         .penalize(HardSoftScore.ONE_HARD)
         .asConstraint("Proposal unacceptable dates");
@@ -105,7 +89,6 @@ public class TimetableConstraintProvider implements ConstraintProvider {
   Constraint proposalPreferredDatesConstraint(ConstraintFactory constraintFactory) {
     return constraintFactory
         .forEach(Session.class)
-        .filter(this::isSessionWithDatePrefs)
         .filter(this::isSessionDatePreferred)
         .reward(HardSoftScore.ofSoft(3))
         .asConstraint("Proposal preferred dates");
@@ -138,18 +121,14 @@ public class TimetableConstraintProvider implements ConstraintProvider {
   }
 
 
+  // Sessions of a proposal should be close to each other: each session is penalized by the spread of its proposal
   Constraint proposalSessionProximity(ConstraintFactory constraintFactory) {
     return constraintFactory.forEach(Session.class)
-        .join(Session.class, Joiners.equal(Session::getProposal))
-        .impact(HardSoftScore.ONE_SOFT, (session1, session2) -> {
-          var indexDiff = session2.getBeamtimeSlot()
-                                  .getIndex() - session1.getBeamtimeSlot()
-                                                        .getIndex();
-          return (int) (-1 * Math.abs(indexDiff / 3));
-        })
+        .groupBy(Session::getProposal, new SessionSpanCollector())
+        .penalize(HardSoftScore.ONE_SOFT, (proposal, span) -> span.count() * (int) (span.length() / 3))
         .asConstraint("Proposal session proximity");
   }
-  
+
   Constraint localContactSessionProximity(ConstraintFactory constraintFactory) {
     return constraintFactory
         .forEachUniquePair(Session.class,
@@ -165,27 +144,18 @@ public class TimetableConstraintProvider implements ConstraintProvider {
         .asConstraint("local contact session proximity");
   }
 
-  private boolean isSessionWithDatePrefs(Session session) {
-    return session.getProposal()
-                  .getDatePreferences() != null && !session.getProposal()
-                                                           .getDatePreferences()
-                                                           .isEmpty();
-  }
-
   private boolean isSessionDateUnacceptable(Session session) {
     return session.getProposal()
-                  .getDatePreferences()
-                  .stream()
-                  .anyMatch(datePrefs -> !datePrefs.isAcceptable() && datePrefs.contains(session.getBeamtimeSlot()
-                                                                                                .getDate()));
+                  .getDatePreferenceIndex()
+                  .isUnacceptable(session.getBeamtimeSlot()
+                                         .getEpochDay());
   }
 
   private boolean isSessionDatePreferred(Session session) {
     return session.getProposal()
-                  .getDatePreferences()
-                  .stream()
-                  .anyMatch(datePrefs -> datePrefs.isAcceptable() && datePrefs.contains(session.getBeamtimeSlot()
-                                                                                               .getDate()));
+                  .getDatePreferenceIndex()
+                  .isAcceptable(session.getBeamtimeSlot()
+                                       .getEpochDay());
   }
 
 }
@@ -0,0 +1,48 @@
+package org.acme.schooltimetabling.solver.change;
+
+import java.util.ArrayList;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.LocalContact;
+import org.acme.schooltimetabling.domain.StaffMember;
+import org.acme.schooltimetabling.domain.Timetable;
+
+// Makes a staff member local contact of a beamline, the staff member is added too if it is not in the timetable yet
+public record AddLocalContactProblemChange(String localContactId, String beamlineId, String staffMemberId,
+                                           String staffMemberName) implements ProblemChange<Timetable> {
+
+  @Override
+  public void doChange(Timetable timetable, ProblemChangeDirector problemChangeDirector) {
+    Beamline beamline = timetable.getBeamlines()
+                                 .stream()
+                                 .filter(beamline_ -> beamline_.getId().equals(beamlineId))
+                                 .findFirst()
+                                 .orElse(null);
+    if (beamline == null) {
+      return;
+    }
+    StaffMember staffMember = timetable.getStaffMembers()
+                                       .stream()
+                                       .filter(staffMember_ -> staffMember_.getId().equals(staffMemberId))
+                                       .findFirst()
+                                       .orElse(null);
+    if (staffMember == null) {
+      staffMember = new StaffMember(staffMemberName);
+      staffMember.setId(staffMemberId);
+      problemChangeDirector.addProblemFact(staffMember, staffMember_ -> {
+        var staffMembers = new ArrayList<>(timetable.getStaffMembers());
+        staffMembers.add(staffMember_);
+        timetable.setStaffMembers(staffMembers);
+      });
+    }
+    var localContact = new LocalContact(beamline, staffMember);
+    localContact.setId(localContactId);
+    problemChangeDirector.addProblemFact(localContact, localContact_ -> {
+      var localContacts = new ArrayList<>(timetable.getLocalContacts());
+      localContacts.add(localContact_);
+      timetable.setLocalContacts(localContacts);
+    });
+  }
+}
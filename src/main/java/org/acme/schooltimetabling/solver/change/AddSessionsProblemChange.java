@@ -0,0 +1,45 @@
+package org.acme.schooltimetabling.solver.change;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.Proposal;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.Timetable;
+
+// Adds unassigned sessions to an existing proposal, the solver restarts its construction heuristic to place them.
+// The proposal and the beamline are resolved by id in the working solution, nothing changes if either disappeared or
+// the beamline has no local contact left.
+public record AddSessionsProblemChange(String proposalFinalNumber, String beamlineId, List<String> sessionIds)
+    implements ProblemChange<Timetable> {
+
+  @Override
+  public void doChange(Timetable timetable, ProblemChangeDirector problemChangeDirector) {
+    Proposal proposal = timetable.getSessions()
+                                 .stream()
+                                 .map(Session::getProposal)
+                                 .filter(proposal_ -> proposal_.getFinalNumber().equals(proposalFinalNumber))
+                                 .findFirst()
+                                 .orElse(null);
+    Beamline beamline = timetable.getBeamlines()
+                                 .stream()
+                                 .filter(beamline_ -> beamline_.getId().equals(beamlineId))
+                                 .findFirst()
+                                 .orElse(null);
+    if (proposal == null || beamline == null
+        || timetable.getLocalContacts().stream().noneMatch(localContact -> localContact.getBeamline() == beamline)) {
+      return;
+    }
+    // The solution's lists are shared with the best solution clones, so they are copied before any change
+    var sessions = new ArrayList<>(timetable.getSessions());
+    for (String sessionId : sessionIds) {
+      var session = new Session(proposal, beamline);
+      session.setId(sessionId);
+      problemChangeDirector.addEntity(session, sessions::add);
+    }
+    timetable.setSessions(sessions);
+  }
+}
@@ -0,0 +1,30 @@
+package org.acme.schooltimetabling.solver.change;
+
+import java.util.List;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import org.acme.schooltimetabling.domain.DatePreference;
+import org.acme.schooltimetabling.domain.Proposal;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.Timetable;
+
+// Replaces the proposal of its sessions instead of editing it, because the proposal is shared with the best solution clones
+public record ChangeDatePreferencesProblemChange(String proposalFinalNumber, List<DatePreference> datePreferences)
+    implements ProblemChange<Timetable> {
+
+  @Override
+  public void doChange(Timetable timetable, ProblemChangeDirector problemChangeDirector) {
+    Proposal changedProposal = null;
+    for (Session session : timetable.getSessions()) {
+      if (!session.getProposal().getFinalNumber().equals(proposalFinalNumber)) {
+        continue;
+      }
+      if (changedProposal == null) {
+        changedProposal = new Proposal(proposalFinalNumber, session.getProposal().getBeamMode(), datePreferences);
+      }
+      var proposal = changedProposal;
+      problemChangeDirector.changeProblemProperty(session, session_ -> session_.setProposal(proposal));
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package org.acme.schooltimetabling.solver.change;
+
+import java.util.ArrayList;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.Timetable;
+
+// Removes a beamtime slot from the timetable, the sessions planned in it are unassigned and placed again
+public record MarkBeamtimeSlotUnavailableProblemChange(String beamtimeSlotId) implements ProblemChange<Timetable> {
+
+  @Override
+  public void doChange(Timetable timetable, ProblemChangeDirector problemChangeDirector) {
+    BeamtimeSlot beamtimeSlot = timetable.getBeamtimeSlots()
+                                         .stream()
+                                         .filter(beamtimeSlot_ -> beamtimeSlot_.getId().equals(beamtimeSlotId))
+                                         .findFirst()
+                                         .orElse(null);
+    if (beamtimeSlot == null) {
+      return;
+    }
+    for (Session session : timetable.getSessions()) {
+      if (session.getBeamtimeSlot() == beamtimeSlot) {
+        problemChangeDirector.changeVariable(session, "beamtimeSlot", session_ -> session_.setBeamtimeSlot(null));
+      }
+    }
+    problemChangeDirector.removeProblemFact(beamtimeSlot, beamtimeSlot_ -> {
+      var beamtimeSlots = new ArrayList<>(timetable.getBeamtimeSlots());
+      beamtimeSlots.remove(beamtimeSlot_);
+      timetable.setBeamtimeSlots(beamtimeSlots);
+    });
+  }
+}
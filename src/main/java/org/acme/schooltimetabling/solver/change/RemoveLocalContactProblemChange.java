@@ -0,0 +1,52 @@
+package org.acme.schooltimetabling.solver.change;
+
+import java.util.ArrayList;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import org.acme.schooltimetabling.domain.LocalContact;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.Timetable;
+
+// Removes a local contact, its sessions get another one. A staff member left without any local contact is removed too,
+// otherwise it would break the hard constraint that every staff member gets an assignment.
+// Nothing changes if it is the last local contact of a beamline with sessions, which would have none to get.
+public record RemoveLocalContactProblemChange(String localContactId) implements ProblemChange<Timetable> {
+
+  @Override
+  public void doChange(Timetable timetable, ProblemChangeDirector problemChangeDirector) {
+    LocalContact localContact = timetable.getLocalContacts()
+                                         .stream()
+                                         .filter(localContact_ -> localContact_.getId().equals(localContactId))
+                                         .findFirst()
+                                         .orElse(null);
+    if (localContact == null || isLastOfABeamlineWithSessions(timetable, localContact)) {
+      return;
+    }
+    for (Session session : timetable.getSessions()) {
+      if (session.getLocalContact() == localContact) {
+        problemChangeDirector.changeVariable(session, "localContact", session_ -> session_.setLocalContact(null));
+      }
+    }
+    problemChangeDirector.removeProblemFact(localContact, localContact_ -> {
+      var localContacts = new ArrayList<>(timetable.getLocalContacts());
+      localContacts.remove(localContact_);
+      timetable.setLocalContacts(localContacts);
+    });
+    var staffMember = localContact.getStaffMember();
+    if (timetable.getLocalContacts().stream().noneMatch(localContact_ -> localContact_.getStaffMember().equals(staffMember))) {
+      problemChangeDirector.removeProblemFact(staffMember, staffMember_ -> {
+        var staffMembers = new ArrayList<>(timetable.getStaffMembers());
+        staffMembers.remove(staffMember_);
+        timetable.setStaffMembers(staffMembers);
+      });
+    }
+  }
+
+  public static boolean isLastOfABeamlineWithSessions(Timetable timetable, LocalContact localContact) {
+    var beamline = localContact.getBeamline();
+    return timetable.getLocalContacts().stream().noneMatch(localContact_ -> localContact_ != localContact
+                                                                            && localContact_.getBeamline() == beamline)
+           && timetable.getSessions().stream().anyMatch(session -> session.getBeamline() == beamline);
+  }
+}
@@ -0,0 +1,23 @@
+package org.acme.schooltimetabling.solver.change;
+
+import java.util.ArrayList;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChange;
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import org.acme.schooltimetabling.domain.Timetable;
+
+public record RemoveSessionProblemChange(String sessionId) implements ProblemChange<Timetable> {
+
+  @Override
+  public void doChange(Timetable timetable, ProblemChangeDirector problemChangeDirector) {
+    timetable.getSessions()
+             .stream()
+             .filter(session -> session.getId().equals(sessionId))
+             .findFirst()
+             .ifPresent(session -> problemChangeDirector.removeEntity(session, session_ -> {
+               var sessions = new ArrayList<>(timetable.getSessions());
+               sessions.remove(session_);
+               timetable.setSessions(sessions);
+             }));
+  }
+}
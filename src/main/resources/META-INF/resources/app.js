@@ -1,9 +1,13 @@
-var autoRefreshIntervalId = null;
+var solverEventSource = null;
 const dateTimeFormatter = JSJoda.DateTimeFormatter.ofPattern('HH:mm')
 
 let demoDataId = null;
 let scheduleId = null;
 let loadedSchedule = null;
+let indexedSchedule = null;
+let sessionsById = new Map();
+let beamtimeSlotsById = new Map();
+let localContactsById = new Map();
 
 var calendarMap = new Map();
 
@@ -151,7 +155,11 @@ $(document).ready(function () {
       scoreAnalysisModalContent.text("No score to analyze yet, please first press the 'solve' button.");
     } else {
       $('#scoreAnalysisScoreLabel').text(`(${loadedSchedule.score})`);
-      $.put("/timetables/analyze", JSON.stringify(loadedSchedule), function (scoreAnalysis) {
+      // A submitted timetable is analyzed on the server, without uploading it again
+      const analysisRequest = scheduleId === null
+        ? $.put("/timetables/analyze", JSON.stringify(loadedSchedule))
+        : $.getJSON("/timetables/" + scheduleId + "/analyze");
+      analysisRequest.done(function (scoreAnalysis) {
         let constraints = scoreAnalysis.constraints;
         constraints.sort((a, b) => {
           let aComponents = getScoreComponents(a.score), bComponents = getScoreComponents(b.score);
@@ -214,8 +222,7 @@ $(document).ready(function () {
         scoreAnalysisModalContent.append(analysisTable);
       }).fail(function (xhr, ajaxOptions, thrownError) {
         showError("Analyze failed.", xhr);
-      },
-        "text");
+      });
     }
   }
 
@@ -234,19 +241,67 @@ $(document).ready(function () {
     if (solving) {
       $("#solveButton").hide();
       $("#stopSolvingButton").show();
-      if (autoRefreshIntervalId == null) {
-        autoRefreshIntervalId = setInterval(refreshSchedule, 2000);
-      }
+      subscribeToSolverEvents();
     } else {
       $("#solveButton").show();
       $("#stopSolvingButton").hide();
-      if (autoRefreshIntervalId != null) {
-        clearInterval(autoRefreshIntervalId);
-        autoRefreshIntervalId = null;
-      }
+      unsubscribeFromSolverEvents();
+    }
+  }
+
+  // The server pushes the score and only the changed session assignments, instead of the UI polling the whole timetable
+  function subscribeToSolverEvents() {
+    if (solverEventSource != null || scheduleId === null) {
+      return;
+    }
+    solverEventSource = new EventSource("/timetables/" + scheduleId + "/events");
+    solverEventSource.addEventListener("timetable", (event) => applyTimetableDelta(JSON.parse(event.data)));
+    solverEventSource.onerror = () => {
+      // The stream is closed when solving ends or the connection drops: fetch the full timetable once to resync
+      unsubscribeFromSolverEvents();
+      refreshSchedule();
+    };
+  }
+
+  function unsubscribeFromSolverEvents() {
+    if (solverEventSource != null) {
+      solverEventSource.close();
+      solverEventSource = null;
     }
   }
 
+  function applyTimetableDelta(delta) {
+    if (loadedSchedule === null) {
+      return;
+    }
+    if (indexedSchedule !== loadedSchedule) {
+      sessionsById = new Map(loadedSchedule.sessions.map(session => [session.id, session]));
+      beamtimeSlotsById = new Map(loadedSchedule.beamtimeSlots.map(beamtimeSlot => [beamtimeSlot.id, beamtimeSlot]));
+      localContactsById = new Map(loadedSchedule.localContacts.map(localContact => [localContact.id, localContact]));
+      indexedSchedule = loadedSchedule;
+    }
+    if ((delta.complete && delta.sessions.length !== sessionsById.size)
+        || delta.sessions.some(assignment => !sessionsById.has(assignment.id)
+        || (assignment.beamtimeSlot != null && !beamtimeSlotsById.has(assignment.beamtimeSlot))
+        || (assignment.localContact != null && !localContactsById.has(assignment.localContact)))) {
+      // Sessions, slots or local contacts were added or removed by problem changes: fetch the full timetable
+      refreshSchedule();
+      return;
+    }
+    if (delta.score != null) {
+      loadedSchedule.score = delta.score;
+    }
+    loadedSchedule.solverStatus = delta.solverStatus;
+    $.each(delta.sessions, (_, assignment) => {
+      let session = sessionsById.get(assignment.id);
+      if (session) {
+        session.beamtimeSlot = beamtimeSlotsById.get(assignment.beamtimeSlot) ?? null;
+        session.localContact = localContactsById.get(assignment.localContact) ?? null;
+      }
+    });
+    renderSchedule(loadedSchedule);
+  }
+
   function stopSolving() {
     $.delete("/timetables/" + scheduleId, function () {
       refreshSolvingButtons(false);
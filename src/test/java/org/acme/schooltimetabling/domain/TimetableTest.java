@@ -0,0 +1,76 @@
+package org.acme.schooltimetabling.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TimetableTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+  private static final BeamMode SINGLE_BUNCH = new BeamMode("Single Bunch");
+
+  @Test
+  void sessionsOnlyGetTheSlotsOfTheirBeamMode() {
+    var singleBunch = new BeamMode("Single Bunch");
+    var sevenEighths = new BeamMode("7/8 + 1 Filling 200mA");
+    var mondaySlot = new BeamtimeSlot(MONDAY, 9, singleBunch);
+    var tuesdaySlot = new BeamtimeSlot(MONDAY.plusDays(1), 9, sevenEighths);
+    var wednesdaySlot = new BeamtimeSlot(MONDAY.plusDays(2), 9, singleBunch);
+    var beamline = new Beamline("ID01");
+    var singleBunchSession = new Session(new Proposal("P-1", singleBunch), beamline);
+    var sevenEighthsSession = new Session(new Proposal("P-2", sevenEighths), beamline);
+    var modelessSession = new Session(new Proposal("P-3", new BeamMode("Multibunch")), beamline);
+
+    new Timetable("test", List.of(mondaySlot, tuesdaySlot, wednesdaySlot), List.of(beamline),
+                  List.of(singleBunchSession, sevenEighthsSession, modelessSession),
+                  List.of(new LocalContact(beamline, new StaffMember("Ann"))));
+
+    assertThat(singleBunchSession.getBeamtimeSlotRange()).containsExactly(mondaySlot, wednesdaySlot);
+    assertThat(sevenEighthsSession.getBeamtimeSlotRange()).containsExactly(tuesdaySlot);
+    assertThat(modelessSession.getBeamtimeSlotRange()).isEmpty();
+  }
+
+  @Test
+  void sessionsOnABeamlineWithoutLocalContactsAreRejected() {
+    var beamline = new Beamline("ID01");
+    var otherBeamline = new Beamline("ID02");
+    var session = new Session(new Proposal("P-1", SINGLE_BUNCH), otherBeamline);
+    var beamtimeSlots = List.of(new BeamtimeSlot(MONDAY, 9, SINGLE_BUNCH));
+    var beamlines = List.of(beamline, otherBeamline);
+    var localContacts = List.of(new LocalContact(beamline, new StaffMember("Ann")));
+
+    assertThatIllegalArgumentException().isThrownBy(() -> new Timetable("test", beamtimeSlots, beamlines, List.of(session),
+                                                                        localContacts))
+                                        .withMessageContaining("id02");
+  }
+
+  // Like the copies Jackson gives every reference to a beam mode
+  @Test
+  void beamModeCopiesAreShared() {
+    var mondaySlot = new BeamtimeSlot(MONDAY, 9, copy(SINGLE_BUNCH));
+    var tuesdaySlot = new BeamtimeSlot(MONDAY.plusDays(1), 9, copy(SINGLE_BUNCH));
+    var beamline = new Beamline("ID01");
+    var session = new Session(new Proposal("P-1", copy(SINGLE_BUNCH)), beamline);
+    var otherSession = new Session(new Proposal("P-2", copy(SINGLE_BUNCH)), beamline);
+
+    new Timetable("test", List.of(mondaySlot, tuesdaySlot), List.of(beamline), List.of(session, otherSession),
+                  List.of(new LocalContact(beamline, new StaffMember("Ann"))));
+
+    assertThat(tuesdaySlot.getBeamMode()).isSameAs(mondaySlot.getBeamMode());
+    assertThat(session.getProposal().getBeamMode()).isSameAs(mondaySlot.getBeamMode());
+    assertThat(otherSession.getProposal().getBeamMode()).isSameAs(mondaySlot.getBeamMode());
+    assertThat(session.getBeamtimeSlotRange()).containsExactly(mondaySlot, tuesdaySlot);
+  }
+
+  private static BeamMode copy(BeamMode beamMode) {
+    var copy = new BeamMode();
+    copy.setId(beamMode.getId());
+    copy.setName(beamMode.getName());
+    return copy;
+  }
+}
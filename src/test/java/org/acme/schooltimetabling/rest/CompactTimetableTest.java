@@ -0,0 +1,135 @@
+package org.acme.schooltimetabling.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import ai.timefold.solver.core.api.score.buildin.hardsoft.HardSoftScore;
+import ai.timefold.solver.core.api.solver.SolverStatus;
+
+import org.acme.schooltimetabling.domain.BeamMode;
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.DatePreference;
+import org.acme.schooltimetabling.domain.LocalContact;
+import org.acme.schooltimetabling.domain.Proposal;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.StaffMember;
+import org.acme.schooltimetabling.domain.Timetable;
+
+class CompactTimetableTest {
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    static Stream<ObjectMapper> objectMappers() {
+        return Stream.of(JSON_MAPPER, JSON_MAPPER.copyWith(new SmileFactory()), JSON_MAPPER.copyWith(new CBORFactory()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("objectMappers")
+    void roundTrip(ObjectMapper objectMapper) throws IOException {
+        Timetable timetable = solvedTimetable();
+        CompactTimetable compactTimetable = CompactTimetable.of(timetable);
+
+        CompactTimetable decodedCompactTimetable = objectMapper.readValue(objectMapper.writeValueAsBytes(compactTimetable),
+                CompactTimetable.class);
+        assertThat(decodedCompactTimetable).isEqualTo(compactTimetable);
+
+        Timetable decoded = decodedCompactTimetable.toTimetable();
+        assertThat(CompactTimetable.of(decoded)).isEqualTo(compactTimetable);
+        assertThat(decoded.getScore()).isEqualTo(timetable.getScore());
+        assertThat(decoded.getSolverStatus()).isEqualTo(timetable.getSolverStatus());
+        assertThat(decoded.getStaffMembers()).extracting(StaffMember::getId)
+                .containsExactlyElementsOf(timetable.getStaffMembers().stream().map(StaffMember::getId).toList());
+    }
+
+    @ParameterizedTest
+    @MethodSource("objectMappers")
+    void roundTripWithoutStaffMembers(ObjectMapper objectMapper) throws IOException {
+        Timetable timetable = solvedTimetable();
+        timetable.setStaffMembers(null);
+        CompactTimetable compactTimetable = CompactTimetable.of(timetable);
+
+        Timetable decoded = objectMapper.readValue(objectMapper.writeValueAsBytes(compactTimetable), CompactTimetable.class)
+                .toTimetable();
+        assertThat(CompactTimetable.of(decoded)).isEqualTo(compactTimetable);
+        assertThat(decoded.getStaffMembers()).extracting(StaffMember::getName).containsExactly("Ann", "Bob");
+        assertThat(decoded.getLocalContacts()).allSatisfy(localContact -> assertThat(decoded.getStaffMembers())
+                .anySatisfy(staffMember -> assertThat(staffMember).isSameAs(localContact.getStaffMember())));
+    }
+
+    // The decoded sessions refer to the instances of the decoded fact lists
+    @ParameterizedTest
+    @MethodSource("objectMappers")
+    void decodedFactsAreShared(ObjectMapper objectMapper) throws IOException {
+        Timetable decoded = objectMapper.readValue(objectMapper.writeValueAsBytes(CompactTimetable.of(solvedTimetable())),
+                CompactTimetable.class).toTimetable();
+
+        for (Session session : decoded.getSessions()) {
+            assertThat(decoded.getBeamlines()).containsOnlyOnce(session.getBeamline());
+            if (session.getBeamtimeSlot() != null) {
+                assertThat(decoded.getBeamtimeSlots()).anySatisfy(slot -> assertThat(slot).isSameAs(session.getBeamtimeSlot()));
+            }
+            if (session.getLocalContact() != null) {
+                assertThat(decoded.getLocalContacts())
+                        .anySatisfy(localContact -> assertThat(localContact).isSameAs(session.getLocalContact()));
+                assertThat(decoded.getStaffMembers())
+                        .anySatisfy(staffMember -> assertThat(staffMember).isSameAs(session.getLocalContact().getStaffMember()));
+            }
+        }
+    }
+
+    // Half of the sessions assigned, and a staff member who is no local contact, which only the staff member list holds
+    private static Timetable solvedTimetable() {
+        LocalDate monday = LocalDate.of(2024, 1, 1);
+        BeamMode singleBunch = new BeamMode("Single Bunch");
+        BeamMode sevenEighths = new BeamMode("7/8 + 1 Filling 200mA");
+        List<BeamtimeSlot> beamtimeSlots = new ArrayList<>();
+        for (int day = 0; day < 3; day++) {
+            BeamMode beamMode = day == 1 ? sevenEighths : singleBunch;
+            for (int hour = 9; hour < 12; hour++) {
+                beamtimeSlots.add(new BeamtimeSlot(monday.plusDays(day), hour, beamMode));
+            }
+        }
+        List<Beamline> beamlines = List.of(new Beamline("ID01"), new Beamline("ID02"));
+        List<Proposal> proposals = List.of(
+                new Proposal("P-1", singleBunch, List.of(new DatePreference(monday, monday, true))),
+                new Proposal("P-2", sevenEighths));
+        List<Session> sessions = new ArrayList<>();
+        for (Proposal proposal : proposals) {
+            for (Beamline beamline : beamlines) {
+                sessions.add(new Session(proposal, beamline));
+                sessions.add(new Session(proposal, beamline));
+            }
+        }
+        StaffMember ann = new StaffMember("Ann");
+        List<LocalContact> localContacts = List.of(new LocalContact(beamlines.get(0), ann),
+                new LocalContact(beamlines.get(1), ann), new LocalContact(beamlines.get(1), new StaffMember("Bob")));
+        List<StaffMember> staffMembers = new ArrayList<>(localContacts.stream().map(LocalContact::getStaffMember).distinct().toList());
+        staffMembers.add(new StaffMember("On leave"));
+        Timetable timetable = new Timetable("compact", beamtimeSlots, beamlines, sessions, localContacts, staffMembers);
+        for (int i = 0; i < sessions.size(); i += 2) {
+            Session session = sessions.get(i);
+            session.setBeamtimeSlot(session.getBeamtimeSlotRange().get(i % session.getBeamtimeSlotRange().size()));
+            session.setLocalContact(session.getLocalContactRange().get(0));
+        }
+        timetable.setScore(HardSoftScore.of(-1, -20));
+        timetable.setSolverStatus(SolverStatus.NOT_SOLVING);
+        return timetable;
+    }
+}
@@ -0,0 +1,43 @@
+package org.acme.schooltimetabling.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.acme.schooltimetabling.rest.TimetableAdmissionQueue.Ticket;
+
+// At most 4 solvers at once, 3 per client
+class TimetableAdmissionQueueTest {
+
+    private final TimetableAdmissionQueue admissionQueue = new TimetableAdmissionQueue(100, 20, 4, 3, Duration.ofSeconds(30));
+
+    @Test
+    void jobsAreChargedForEachOfTheirSolvers() {
+        assertThat(jobIds(admissionQueue.submit("portfolio", "ann", 0, null, SolvingMode.PORTFOLIO, 3, true)))
+                .containsExactly("portfolio");
+        assertThat(jobIds(admissionQueue.submit("default", "bob", 0, null, SolvingMode.DEFAULT, 1, true)))
+                .containsExactly("default");
+        assertThat(admissionQueue.submit("other-portfolio", "bob", 0, null, SolvingMode.PORTFOLIO, 3, true)).isEmpty();
+
+        assertThat(admissionQueue.release("default")).isEmpty();
+        assertThat(jobIds(admissionQueue.release("portfolio"))).containsExactly("other-portfolio");
+    }
+
+    // A portfolio of more strategies than the limits solves alone, and the jobs after it wait their turn
+    @Test
+    void jobsChargedMoreThanTheLimitsSolveAlone() {
+        admissionQueue.submit("default", "ann", 0, null, SolvingMode.DEFAULT, 1, true);
+        assertThat(admissionQueue.submit("portfolio", "bob", 0, null, SolvingMode.PORTFOLIO, 5, true)).isEmpty();
+        assertThat(admissionQueue.submit("other-default", "cid", 0, null, SolvingMode.DEFAULT, 1, true)).isEmpty();
+
+        assertThat(jobIds(admissionQueue.release("default"))).containsExactly("portfolio");
+        assertThat(jobIds(admissionQueue.release("portfolio"))).containsExactly("other-default");
+    }
+
+    private static List<String> jobIds(List<Ticket> tickets) {
+        return tickets.stream().map(Ticket::jobId).toList();
+    }
+}
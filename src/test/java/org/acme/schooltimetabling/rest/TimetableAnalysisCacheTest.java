@@ -0,0 +1,67 @@
+package org.acme.schooltimetabling.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.acme.schooltimetabling.domain.DatePreference;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.Timetable;
+import org.acme.schooltimetabling.generator.TimetableGenerator;
+import org.acme.schooltimetabling.generator.TimetableGeneratorParameters;
+
+class TimetableAnalysisCacheTest {
+
+    private static final TimetableGeneratorParameters PARAMETERS = TimetableGeneratorParameters.ofSize("cache", 2, 10, 0L);
+
+    // Equal timetables made of other instances, like two uploads of the same timetable
+    @Test
+    void equalTimetablesHaveTheSameHash() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(TimetableAnalysisCache.contentHash(assigned(TimetableGenerator.generate(PARAMETERS))))
+                    .isEqualTo(TimetableAnalysisCache.contentHash(assigned(TimetableGenerator.generate(PARAMETERS))));
+        }
+    }
+
+    @Test
+    void anotherAssignmentChangesTheHash() {
+        Timetable timetable = assigned(TimetableGenerator.generate(PARAMETERS));
+        String contentHash = TimetableAnalysisCache.contentHash(timetable);
+
+        Session session = timetable.getSessions().get(0);
+        session.setBeamtimeSlot(session.getBeamtimeSlotRange().get(1));
+
+        assertThat(TimetableAnalysisCache.contentHash(timetable)).isNotEqualTo(contentHash);
+    }
+
+    @Test
+    void anotherDatePreferenceChangesTheHash() {
+        Timetable timetable = assigned(TimetableGenerator.generate(PARAMETERS));
+        String contentHash = TimetableAnalysisCache.contentHash(timetable);
+
+        Session session = timetable.getSessions().get(0);
+        session.getProposal().setDatePreferences(List.of(new DatePreference(session.getBeamtimeSlot().getDate(),
+                session.getBeamtimeSlot().getDate(), false)));
+
+        assertThat(TimetableAnalysisCache.contentHash(timetable)).isNotEqualTo(contentHash);
+    }
+
+    @Test
+    void theNameDoesNotChangeTheHash() {
+        Timetable timetable = assigned(TimetableGenerator.generate(PARAMETERS));
+        Timetable renamed = new Timetable("renamed", timetable.getBeamtimeSlots(), timetable.getBeamlines(),
+                timetable.getSessions(), timetable.getLocalContacts(), timetable.getStaffMembers());
+
+        assertThat(TimetableAnalysisCache.contentHash(renamed)).isEqualTo(TimetableAnalysisCache.contentHash(timetable));
+    }
+
+    private static Timetable assigned(Timetable timetable) {
+        for (Session session : timetable.getSessions()) {
+            session.setBeamtimeSlot(session.getBeamtimeSlotRange().get(0));
+            session.setLocalContact(session.getLocalContactRange().get(0));
+        }
+        return timetable;
+    }
+}
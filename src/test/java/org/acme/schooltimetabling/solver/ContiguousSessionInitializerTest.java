@@ -0,0 +1,126 @@
+package org.acme.schooltimetabling.solver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import org.acme.schooltimetabling.domain.BeamMode;
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.LocalContact;
+import org.acme.schooltimetabling.domain.Proposal;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.StaffMember;
+import org.acme.schooltimetabling.domain.Timetable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Six days of two slots each
+class ContiguousSessionInitializerTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+  private static final Set<String> VARIABLE_LISTENER_METHODS = Set.of("beforeVariableChanged", "afterVariableChanged",
+                                                                      "triggerVariableListeners");
+
+  private final BeamMode beamMode = new BeamMode("Single Bunch");
+
+  private final Beamline beamline = new Beamline("ID01");
+
+  private final LocalContact localContact = new LocalContact(beamline, new StaffMember("Ann"));
+
+  private final Proposal proposal = new Proposal("P-1", beamMode);
+
+  private final Proposal otherProposal = new Proposal("P-2", beamMode);
+
+  private final List<BeamtimeSlot> beamtimeSlots = new ArrayList<>();
+
+  private final ContiguousSessionInitializer initializer = new ContiguousSessionInitializer();
+
+  @BeforeEach
+  void createSlots() {
+    for (int day = 0; day < 6; day++) {
+      beamtimeSlots.add(new BeamtimeSlot(MONDAY.plusDays(day), 9, beamMode));
+      beamtimeSlots.add(new BeamtimeSlot(MONDAY.plusDays(day), 10, beamMode));
+    }
+  }
+
+  @Test
+  void sessionsGetOneBlockOfConsecutiveSlots() {
+    var timetable = timetable(List.of(session("S-1", proposal), session("S-2", proposal), session("S-3", otherProposal)));
+
+    initializer.changeWorkingSolution(workingSolutionScoreDirector(timetable));
+
+    assertThat(timetable.getSessions()).extracting(Session::getBeamtimeSlot)
+                                       .containsExactly(slot(0, 9), slot(0, 10), slot(1, 9));
+    assertThat(timetable.getSessions()).extracting(Session::getLocalContact).containsOnly(localContact);
+  }
+
+  @Test
+  void blocksKeepToTheRangesOfAllTheirSessions() {
+    var timetable = timetable(List.of(session("S-1", proposal), session("S-2", proposal)));
+    timetable.getSessions().get(1).setBeamtimeSlotRange(beamtimeSlots.subList(6, 12));
+
+    initializer.changeWorkingSolution(workingSolutionScoreDirector(timetable));
+
+    assertThat(timetable.getSessions()).extracting(Session::getBeamtimeSlot).containsExactly(slot(3, 9), slot(3, 10));
+  }
+
+  // The first window commits P-1 on the first day and leaves P-2 unassigned, so the lookback day of the second
+  // window is free. P-2 must still be placed in the window's own days.
+  @Test
+  void windowSessionsKeepOutOfTheLookbackDays() {
+    var timetable = timetable(List.of(session("S-1", proposal), session("S-2", proposal),
+                                      session("S-3", otherProposal), session("S-4", otherProposal)));
+    var rollingHorizon = new RollingHorizon(timetable, 3, 1);
+    RollingHorizon.Window firstWindow = rollingHorizon.getWindows().get(0);
+    Timetable firstWindowProblem = rollingHorizon.createWindowProblem(firstWindow);
+    firstWindowProblem.getSessions().get(0).setBeamtimeSlot(slot(0, 9));
+    firstWindowProblem.getSessions().get(1).setBeamtimeSlot(slot(0, 10));
+    rollingHorizon.commit(firstWindow, firstWindowProblem);
+    Timetable secondWindowProblem = rollingHorizon.createWindowProblem(rollingHorizon.getWindows().get(1));
+    assertThat(secondWindowProblem.getPinnedBeamtimeSlots()).containsExactly(slot(1, 9), slot(1, 10));
+
+    initializer.changeWorkingSolution(workingSolutionScoreDirector(secondWindowProblem));
+
+    assertThat(secondWindowProblem.getSessions()).extracting(Session::getId).containsExactly("S-3", "S-4");
+    assertThat(secondWindowProblem.getSessions()).extracting(Session::getBeamtimeSlot)
+                                                 .containsExactly(slot(2, 9), slot(2, 10));
+    assertThat(secondWindowProblem.getSessions()).allSatisfy(session -> assertThat(session.getBeamtimeSlotRange())
+        .contains(session.getBeamtimeSlot()));
+  }
+
+  private Timetable timetable(List<Session> sessions) {
+    return new Timetable("test", beamtimeSlots, List.of(beamline), sessions, List.of(localContact));
+  }
+
+  private Session session(String id, Proposal proposal) {
+    var session = new Session(proposal, beamline);
+    session.setId(id);
+    return session;
+  }
+
+  private BeamtimeSlot slot(int day, int hour) {
+    return beamtimeSlots.get(2 * day + hour - 9);
+  }
+
+  // The initializer only reads the working solution and announces its variable changes
+  @SuppressWarnings("unchecked")
+  private static ScoreDirector<Timetable> workingSolutionScoreDirector(Timetable timetable) {
+    return (ScoreDirector<Timetable>) Proxy.newProxyInstance(
+        ScoreDirector.class.getClassLoader(), new Class<?>[] { ScoreDirector.class }, (proxy, method, arguments) -> {
+          if (method.getName().equals("getWorkingSolution")) {
+            return timetable;
+          }
+          if (VARIABLE_LISTENER_METHODS.contains(method.getName())) {
+            return null;
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+  }
+}
@@ -0,0 +1,62 @@
+package org.acme.schooltimetabling.solver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.Timetable;
+import org.acme.schooltimetabling.generator.TimetableGenerator;
+import org.acme.schooltimetabling.generator.TimetableGeneratorParameters;
+import org.junit.jupiter.api.Test;
+
+class PhaseTimerTest {
+
+  private static final SolverFactory<Timetable> SOLVER_FACTORY = SolverFactory.create(
+      SolverConfig.createFromXmlResource("solverConfig.xml")
+                  .withSolutionClass(Timetable.class)
+                  .withEntityClasses(Session.class)
+                  .withConstraintProviderClass(TimetableConstraintProvider.class)
+                  .withTerminationSpentLimit(Duration.ofSeconds(1)));
+
+  private static final TimetableGeneratorParameters PARAMETERS = TimetableGeneratorParameters.ofSize("phases", 2, 10, 0L);
+
+  @Test
+  void phasesAreTimedForTheJobOfTheSolution() {
+    var phases = new CopyOnWriteArrayList<String>();
+    Timetable problem = TimetableGenerator.generate(PARAMETERS);
+    problem.setPhaseTimeListener((phase, durationNanos) -> {
+      assertThat(durationNanos).isPositive();
+      phases.add(phase);
+    });
+
+    SOLVER_FACTORY.buildSolver().solve(problem);
+
+    assertThat(phases).containsExactly("contiguous-initializer", "construction-heuristic");
+  }
+
+  // Each solver keeps its own marks, so solvers running at the same time do not time each other's phases
+  @Test
+  void concurrentSolversKeepTheirOwnMarks() throws InterruptedException {
+    Map<String, List<String>> phasesByJob = new ConcurrentHashMap<>();
+    List<Thread> threads = List.of("job-1", "job-2").stream().map(job -> {
+      Timetable problem = TimetableGenerator.generate(PARAMETERS);
+      problem.setPhaseTimeListener((phase, durationNanos) -> phasesByJob.computeIfAbsent(job,
+          job_ -> new CopyOnWriteArrayList<>()).add(phase));
+      return Thread.ofPlatform().start(() -> SOLVER_FACTORY.buildSolver().solve(problem));
+    }).toList();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(phasesByJob).containsOnlyKeys("job-1", "job-2")
+                           .allSatisfy((job, phases) -> assertThat(phases)
+                               .containsExactly("contiguous-initializer", "construction-heuristic"));
+  }
+}
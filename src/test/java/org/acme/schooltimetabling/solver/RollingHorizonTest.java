@@ -0,0 +1,166 @@
+package org.acme.schooltimetabling.solver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import ai.timefold.solver.core.api.solver.SolverFactory;
+import ai.timefold.solver.core.config.solver.SolverConfig;
+import org.acme.schooltimetabling.domain.BeamMode;
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.LocalContact;
+import org.acme.schooltimetabling.domain.Proposal;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.StaffMember;
+import org.acme.schooltimetabling.domain.Timetable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Six days of two slots each, in windows of 3 days overlapping by 1: days 0 to 2, 2 to 4 and 4 to 5
+class RollingHorizonTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+  private static final SolverFactory<Timetable> SOLVER_FACTORY = SolverFactory.create(
+      SolverConfig.createFromXmlResource("solverConfig.xml")
+                  .withSolutionClass(Timetable.class)
+                  .withEntityClasses(Session.class)
+                  .withConstraintProviderClass(TimetableConstraintProvider.class)
+                  .withTerminationSpentLimit(Duration.ofMillis(500)));
+
+  private final BeamMode beamMode = new BeamMode("Single Bunch");
+
+  private final Beamline beamline = new Beamline("ID01");
+
+  private final Beamline idleBeamline = new Beamline("ID02");
+
+  private final StaffMember staffMember = new StaffMember("Ann");
+
+  private final StaffMember idleStaffMember = new StaffMember("Bob");
+
+  private final List<BeamtimeSlot> beamtimeSlots = new ArrayList<>();
+
+  private Timetable timetable;
+
+  private RollingHorizon rollingHorizon;
+
+  @BeforeEach
+  void createTimetable() {
+    for (int day = 0; day < 6; day++) {
+      beamtimeSlots.add(new BeamtimeSlot(MONDAY.plusDays(day), 9, beamMode));
+      beamtimeSlots.add(new BeamtimeSlot(MONDAY.plusDays(day), 10, beamMode));
+    }
+    var committedProposal = new Proposal("P-1", beamMode);
+    var carriedOverProposal = new Proposal("P-2", beamMode);
+    timetable = new Timetable("test", beamtimeSlots, List.of(beamline, idleBeamline),
+                              List.of(session("S-1", committedProposal), session("S-2", committedProposal),
+                                      session("S-3", carriedOverProposal), session("S-4", carriedOverProposal)),
+                              List.of(new LocalContact(beamline, staffMember), new LocalContact(idleBeamline, idleStaffMember)));
+    rollingHorizon = new RollingHorizon(timetable, 3, 1);
+  }
+
+  @Test
+  void windows() {
+    assertThat(rollingHorizon.getWindows()).containsExactly(
+        new RollingHorizon.Window(0, MONDAY, MONDAY.plusDays(2), MONDAY.plusDays(3)),
+        new RollingHorizon.Window(1, MONDAY.plusDays(2), MONDAY.plusDays(4), MONDAY.plusDays(5)),
+        new RollingHorizon.Window(2, MONDAY.plusDays(4), MONDAY.plusDays(6), MONDAY.plusDays(6)));
+  }
+
+  @Test
+  void committedSessionsBeforeTheWindowArePinnedWithTheirSlots() {
+    solveFirstWindow();
+
+    Timetable secondWindowProblem = rollingHorizon.createWindowProblem(rollingHorizon.getWindows().get(1));
+
+    assertThat(secondWindowProblem.getSessions()).extracting(Session::getId).containsExactly("S-2", "S-3", "S-4");
+    Session pinnedSession = secondWindowProblem.getSessions().get(0);
+    assertThat(pinnedSession.isPinned()).isTrue();
+    assertThat(pinnedSession.getBeamtimeSlot()).isSameAs(slot(1, 10));
+    assertThat(secondWindowProblem.getPinnedBeamtimeSlots()).containsExactlyElementsOf(beamtimeSlots.subList(2, 4));
+    assertThat(secondWindowProblem.getBeamtimeSlots()).containsExactlyElementsOf(beamtimeSlots.subList(4, 10));
+    assertThat(secondWindowProblem.getBeamtimeSlotsByBeamMode().get(beamMode))
+        .containsExactlyElementsOf(beamtimeSlots.subList(4, 10));
+  }
+
+  @Test
+  void plannedSessionsKeepToTheWindowSlots() {
+    solveFirstWindow();
+
+    Timetable secondWindowProblem = rollingHorizon.createWindowProblem(rollingHorizon.getWindows().get(1));
+
+    for (Session session : secondWindowProblem.getSessions().subList(1, 3)) {
+      assertThat(session.isPinned()).isFalse();
+      assertThat(session.getBeamtimeSlotRange()).containsExactlyElementsOf(beamtimeSlots.subList(4, 10));
+    }
+    assertThat(secondWindowProblem.getSessions().get(1).getBeamtimeSlot()).isSameAs(slot(2, 9));
+  }
+
+  // The phases of the solver config on the second window, with P-2 left unassigned by the first window, so that the
+  // free slot of the lookback day comes before every slot of the window
+  @Test
+  void solvedWindowPlansOnlyIntoItsOwnSlots() {
+    RollingHorizon.Window firstWindow = rollingHorizon.getWindows().get(0);
+    Timetable firstWindowProblem = rollingHorizon.createWindowProblem(firstWindow);
+    List<Session> committedSessions = firstWindowProblem.getSessions().subList(0, 2);
+    committedSessions.get(0).setBeamtimeSlot(slot(0, 10));
+    committedSessions.get(1).setBeamtimeSlot(slot(1, 10));
+    committedSessions.forEach(session -> session.setLocalContact(session.getLocalContactRange().get(0)));
+    rollingHorizon.commit(firstWindow, firstWindowProblem);
+    RollingHorizon.Window secondWindow = rollingHorizon.getWindows().get(1);
+
+    Timetable solvedWindow = SOLVER_FACTORY.buildSolver().solve(rollingHorizon.createWindowProblem(secondWindow));
+
+    assertThat(solvedWindow.getSessions()).extracting(Session::getId).containsExactly("S-2", "S-3", "S-4");
+    assertThat(solvedWindow.getSessions().get(0).getBeamtimeSlot()).isSameAs(slot(1, 10));
+    for (Session session : solvedWindow.getSessions().subList(1, 3)) {
+      assertThat(session.getBeamtimeSlot().getDate()).isBetween(secondWindow.from(), secondWindow.until().minusDays(1));
+      assertThat(session.getLocalContact().getStaffMember()).isSameAs(staffMember);
+    }
+  }
+
+  @Test
+  void onlyTheStaffMembersOfThePlannedBeamlines() {
+    Timetable firstWindowProblem = rollingHorizon.createWindowProblem(rollingHorizon.getWindows().get(0));
+
+    assertThat(firstWindowProblem.getStaffMembers()).containsExactly(staffMember);
+  }
+
+  @Test
+  void windowProblemsLeaveTheTimetableAsIs() {
+    solveFirstWindow();
+    rollingHorizon.createWindowProblem(rollingHorizon.getWindows().get(1));
+
+    assertThat(timetable.getSessions()).allSatisfy(session -> {
+      assertThat(session.isPinned()).isFalse();
+      assertThat(session.getBeamtimeSlot()).isNull();
+    });
+  }
+
+  // Plans the first proposal before the overlap, so that it is committed, and the second one in it
+  private void solveFirstWindow() {
+    RollingHorizon.Window firstWindow = rollingHorizon.getWindows().get(0);
+    Timetable firstWindowProblem = rollingHorizon.createWindowProblem(firstWindow);
+    assertThat(firstWindowProblem.getSessions()).extracting(Session::getId).containsExactly("S-1", "S-2", "S-3", "S-4");
+    List<Session> sessions = firstWindowProblem.getSessions();
+    sessions.get(0).setBeamtimeSlot(slot(0, 10));
+    sessions.get(1).setBeamtimeSlot(slot(1, 10));
+    sessions.get(2).setBeamtimeSlot(slot(2, 9));
+    sessions.get(3).setBeamtimeSlot(slot(2, 10));
+    rollingHorizon.commit(firstWindow, firstWindowProblem);
+  }
+
+  private Session session(String id, Proposal proposal) {
+    var session = new Session(proposal, beamline);
+    session.setId(id);
+    return session;
+  }
+
+  private BeamtimeSlot slot(int day, int hour) {
+    return beamtimeSlots.get(2 * day + hour - 9);
+  }
+}
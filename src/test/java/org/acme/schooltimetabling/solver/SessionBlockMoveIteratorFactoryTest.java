@@ -0,0 +1,151 @@
+package org.acme.schooltimetabling.solver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import ai.timefold.solver.core.api.score.director.ScoreDirector;
+import org.acme.schooltimetabling.domain.BeamMode;
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.LocalContact;
+import org.acme.schooltimetabling.domain.Proposal;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.StaffMember;
+import org.acme.schooltimetabling.domain.Timetable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Six consecutive slots: P-1 has a run of two sessions in the first two, P-2 a single session in the fifth
+class SessionBlockMoveIteratorFactoryTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+  private final BeamMode beamMode = new BeamMode("Single Bunch");
+
+  private final Beamline beamline = new Beamline("ID01");
+
+  private final Proposal proposal = new Proposal("P-1", beamMode);
+
+  private final Proposal otherProposal = new Proposal("P-2", beamMode);
+
+  private final List<BeamtimeSlot> beamtimeSlots = IntStream.range(9, 15)
+                                                            .mapToObj(hour -> new BeamtimeSlot(MONDAY, hour, beamMode))
+                                                            .toList();
+
+  private final SessionBlockMoveIteratorFactory factory = new SessionBlockMoveIteratorFactory();
+
+  private Session firstSession;
+
+  private Session secondSession;
+
+  private Session otherSession;
+
+  private ScoreDirector<Timetable> scoreDirector;
+
+  @BeforeEach
+  void startPhase() {
+    firstSession = session(proposal, 0);
+    secondSession = session(proposal, 1);
+    otherSession = session(otherProposal, 4);
+    var timetable = new Timetable("test", beamtimeSlots, List.of(beamline), List.of(firstSession, secondSession, otherSession),
+                                  List.of(new LocalContact(beamline, new StaffMember("Ann"))));
+    scoreDirector = workingSolutionScoreDirector(timetable);
+    factory.phaseStarted(scoreDirector);
+  }
+
+  // Each run shifted to every block of slots, then swapped with the run of the other proposal
+  @Test
+  void originalOrder() {
+    List<SessionBlockMove> moves = originalMoves();
+
+    var expectedMoves = new ArrayList<SessionBlockMove>();
+    for (int start = 0; start <= 4; start++) {
+      expectedMoves.add(new SessionBlockMove(List.of(firstSession, secondSession), beamtimeSlots.subList(start, start + 2)));
+    }
+    expectedMoves.add(new SessionBlockMove(List.of(firstSession, otherSession),
+                                           List.of(beamtimeSlots.get(4), beamtimeSlots.get(0))));
+    for (int start = 0; start <= 5; start++) {
+      expectedMoves.add(new SessionBlockMove(List.of(otherSession), List.of(beamtimeSlots.get(start))));
+    }
+    assertThat(moves).containsExactlyElementsOf(expectedMoves);
+    assertThat(originalMoves()).containsExactlyElementsOf(moves);
+  }
+
+  // A swap with the session's own proposal would only shuffle the proposal's sessions among their own slots.
+  // The moves of P-1 alone are block changes, to consecutive slots in order, never such a shuffle.
+  @Test
+  void randomSwapsPairOtherProposals() {
+    var iterator = factory.createRandomMoveIterator(scoreDirector, new Random(0));
+    for (int i = 0; i < 1000; i++) {
+      SessionBlockMove move = iterator.next();
+      List<Session> sessions = List.copyOf(move.getPlanningEntities());
+      if (sessions.contains(otherSession) && sessions.size() > 1) {
+        assertThat(sessions).extracting(Session::getProposal).contains(proposal, otherProposal);
+      } else if (!sessions.isEmpty() && !sessions.contains(otherSession)) {
+        List<BeamtimeSlot> values = List.copyOf(move.getPlanningValues());
+        assertThat(values).hasSameSizeAs(sessions);
+        for (int j = 1; j < values.size(); j++) {
+          assertThat(values.get(j).getIndex()).isEqualTo(values.get(j - 1).getIndex() + 1);
+        }
+      }
+    }
+  }
+
+  // P-1 may only use the first four slots: its run is shifted within them and can not take the slot of P-2
+  @Test
+  void movesKeepToTheValueRanges() {
+    firstSession.setBeamtimeSlotRange(beamtimeSlots.subList(0, 4));
+    secondSession.setBeamtimeSlotRange(beamtimeSlots.subList(0, 4));
+    factory.phaseEnded(scoreDirector);
+    factory.phaseStarted(scoreDirector);
+
+    var expectedMoves = new ArrayList<SessionBlockMove>();
+    for (int start = 0; start <= 2; start++) {
+      expectedMoves.add(new SessionBlockMove(List.of(firstSession, secondSession), beamtimeSlots.subList(start, start + 2)));
+    }
+    for (int start = 0; start <= 5; start++) {
+      expectedMoves.add(new SessionBlockMove(List.of(otherSession), List.of(beamtimeSlots.get(start))));
+    }
+    assertThat(originalMoves()).containsExactlyElementsOf(expectedMoves);
+
+    var iterator = factory.createRandomMoveIterator(scoreDirector, new Random(0));
+    for (int i = 0; i < 1000; i++) {
+      SessionBlockMove move = iterator.next();
+      List<Session> sessions = List.copyOf(move.getPlanningEntities());
+      List<BeamtimeSlot> values = List.copyOf(move.getPlanningValues());
+      for (int j = 0; j < sessions.size(); j++) {
+        assertThat(sessions.get(j).getBeamtimeSlotRange()).contains(values.get(j));
+      }
+    }
+  }
+
+  private List<SessionBlockMove> originalMoves() {
+    var moves = new ArrayList<SessionBlockMove>();
+    factory.createOriginalMoveIterator(scoreDirector).forEachRemaining(moves::add);
+    return moves;
+  }
+
+  private Session session(Proposal proposal, int slotIndex) {
+    var session = new Session(proposal, beamline);
+    session.setBeamtimeSlot(beamtimeSlots.get(slotIndex));
+    return session;
+  }
+
+  // The factory only reads the working solution
+  @SuppressWarnings("unchecked")
+  private static ScoreDirector<Timetable> workingSolutionScoreDirector(Timetable timetable) {
+    return (ScoreDirector<Timetable>) Proxy.newProxyInstance(
+        ScoreDirector.class.getClassLoader(), new Class<?>[] { ScoreDirector.class }, (proxy, method, arguments) -> {
+          if (method.getName().equals("getWorkingSolution")) {
+            return timetable;
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+  }
+}
@@ -0,0 +1,68 @@
+package org.acme.schooltimetabling.solver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.acme.schooltimetabling.domain.BeamMode;
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.Proposal;
+import org.acme.schooltimetabling.domain.Session;
+import org.junit.jupiter.api.Test;
+
+class SessionSpanCollectorTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+  private static final Proposal PROPOSAL = new Proposal("P-1", new BeamMode("Single Bunch"));
+
+  private static final Beamline BEAMLINE = new Beamline("ID01");
+
+  private final SessionSpanCollector collector = new SessionSpanCollector();
+
+  @Test
+  void spanFollowsInsertionsAndRetractions() {
+    var container = collector.supplier().get();
+    Runnable retractFirst = collector.accumulator().apply(container, session(9));
+    Runnable retractLast = collector.accumulator().apply(container, session(16));
+    collector.accumulator().apply(container, session(12));
+    assertThat(collector.finisher().apply(container)).isEqualTo(span(9, 16, 3));
+
+    retractLast.run();
+    assertThat(collector.finisher().apply(container)).isEqualTo(span(9, 12, 2));
+
+    retractFirst.run();
+    assertThat(collector.finisher().apply(container)).isEqualTo(span(12, 12, 1));
+  }
+
+  // A retracted session leaves the span as long as another session is in its slot
+  @Test
+  void sessionsInTheSameSlot() {
+    var container = collector.supplier().get();
+    collector.accumulator().apply(container, session(9));
+    Runnable retract = collector.accumulator().apply(container, session(16));
+    collector.accumulator().apply(container, session(16));
+
+    retract.run();
+    assertThat(collector.finisher().apply(container)).isEqualTo(span(9, 16, 2));
+  }
+
+  @Test
+  void emptySpan() {
+    var container = collector.supplier().get();
+    collector.accumulator().apply(container, session(9)).run();
+    assertThat(collector.finisher().apply(container)).isEqualTo(SessionSpanCollector.Span.EMPTY);
+  }
+
+  private static Session session(int hour) {
+    var session = new Session(PROPOSAL, BEAMLINE);
+    session.setBeamtimeSlot(new BeamtimeSlot(MONDAY, hour, PROPOSAL.getBeamMode()));
+    return session;
+  }
+
+  private static SessionSpanCollector.Span span(int firstHour, int lastHour, int count) {
+    long mondayIndex = MONDAY.toEpochDay() * 24;
+    return new SessionSpanCollector.Span(mondayIndex + firstHour, mondayIndex + lastHour, count);
+  }
+}
@@ -0,0 +1,127 @@
+package org.acme.schooltimetabling.solver;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import ai.timefold.solver.test.api.score.stream.ConstraintVerifier;
+import org.acme.schooltimetabling.domain.BeamMode;
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.DatePreference;
+import org.acme.schooltimetabling.domain.LocalContact;
+import org.acme.schooltimetabling.domain.Proposal;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.StaffMember;
+import org.acme.schooltimetabling.domain.Timetable;
+import org.junit.jupiter.api.Test;
+
+class TimetableConstraintProviderTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+  private static final BeamMode SINGLE_BUNCH = new BeamMode("Single Bunch");
+
+  private static final BeamMode SEVEN_EIGHTHS = new BeamMode("7/8 + 1 Filling 200mA");
+
+  private static final Beamline BEAMLINE = new Beamline("ID01");
+
+  private static final LocalContact LOCAL_CONTACT = new LocalContact(BEAMLINE, new StaffMember("Ann"));
+
+  private final ConstraintVerifier<TimetableConstraintProvider, Timetable> constraintVerifier =
+      ConstraintVerifier.build(new TimetableConstraintProvider(), Timetable.class, Session.class);
+
+  @Test
+  void beamModeConflict() {
+    var proposal = new Proposal("P-1", SINGLE_BUNCH);
+    var otherModeSession = new Session(proposal, BEAMLINE);
+    otherModeSession.setBeamtimeSlot(new BeamtimeSlot(MONDAY, 10, SEVEN_EIGHTHS));
+    otherModeSession.setLocalContact(LOCAL_CONTACT);
+    constraintVerifier.verifyThat(TimetableConstraintProvider::beamModeConflict)
+                      .given(session(proposal, MONDAY, 9), otherModeSession)
+                      .penalizesBy(1);
+  }
+
+  @Test
+  void proposalUnacceptableDates() {
+    var proposal = new Proposal("P-1", SINGLE_BUNCH,
+                                List.of(new DatePreference(MONDAY.plusDays(1), MONDAY.plusDays(2), false)));
+    constraintVerifier.verifyThat(TimetableConstraintProvider::proposalUnacceptableDates)
+                      .given(session(proposal, MONDAY, 9),
+                             session(proposal, MONDAY.plusDays(1), 9),
+                             session(proposal, MONDAY.plusDays(2), 23),
+                             session(proposal, MONDAY.plusDays(3), 0))
+                      .penalizesBy(2);
+  }
+
+  @Test
+  void proposalPreferredDates() {
+    var proposal = new Proposal("P-1", SINGLE_BUNCH,
+                                List.of(new DatePreference(MONDAY, MONDAY, true),
+                                        new DatePreference(MONDAY.plusDays(2), MONDAY.plusDays(2), false)));
+    constraintVerifier.verifyThat(TimetableConstraintProvider::proposalPreferredDatesConstraint)
+                      .given(session(proposal, MONDAY, 9),
+                             session(proposal, MONDAY, 10),
+                             session(proposal, MONDAY.plusDays(1), 9),
+                             session(proposal, MONDAY.plusDays(2), 9))
+                      .rewardsWith(2);
+  }
+
+  @Test
+  void proposalWithoutDatePreferences() {
+    var proposal = new Proposal("P-1", SINGLE_BUNCH);
+    constraintVerifier.verifyThat(TimetableConstraintProvider::proposalUnacceptableDates)
+                      .given(session(proposal, MONDAY, 9))
+                      .penalizesBy(0);
+    constraintVerifier.verifyThat(TimetableConstraintProvider::proposalPreferredDatesConstraint)
+                      .given(session(proposal, MONDAY, 9))
+                      .rewardsWith(0);
+  }
+
+  // Each session of a proposal is penalized by a third of the hours between the proposal's first and last session
+  @Test
+  void proposalSessionProximity() {
+    var proposal = new Proposal("P-1", SINGLE_BUNCH);
+    var otherProposal = new Proposal("P-2", SINGLE_BUNCH);
+    constraintVerifier.verifyThat(TimetableConstraintProvider::proposalSessionProximity)
+                      .given(session(proposal, MONDAY, 9),
+                             session(proposal, MONDAY, 10),
+                             session(proposal, MONDAY, 16),
+                             session(otherProposal, MONDAY, 9),
+                             session(otherProposal, MONDAY, 11))
+                      .penalizesBy(3 * (7 / 3) + 2 * (2 / 3));
+  }
+
+  @Test
+  void proposalSessionProximityCountsSessionsInTheSameSlot() {
+    var proposal = new Proposal("P-1", SINGLE_BUNCH);
+    constraintVerifier.verifyThat(TimetableConstraintProvider::proposalSessionProximity)
+                      .given(session(proposal, MONDAY, 9),
+                             session(proposal, MONDAY, 9),
+                             session(proposal, MONDAY.plusDays(1), 9))
+                      .penalizesBy(3 * (24 / 3));
+  }
+
+  // Each staff member without any session is penalized once, however many local contacts it has
+  @Test
+  void preventLocalContactWithoutAnyAssignment() {
+    var proposal = new Proposal("P-1", SINGLE_BUNCH);
+    var otherBeamline = new Beamline("ID02");
+    var idleStaffMember = new StaffMember("Bob");
+    var otherIdleStaffMember = new StaffMember("Cid");
+    var otherSession = new Session(proposal, otherBeamline);
+    otherSession.setBeamtimeSlot(new BeamtimeSlot(MONDAY, 9, SINGLE_BUNCH));
+    otherSession.setLocalContact(new LocalContact(otherBeamline, LOCAL_CONTACT.getStaffMember()));
+    constraintVerifier.verifyThat(TimetableConstraintProvider::preventLocalContactWithoutAnyAssignment)
+                      .given(LOCAL_CONTACT.getStaffMember(), idleStaffMember, otherIdleStaffMember,
+                             new LocalContact(BEAMLINE, idleStaffMember), new LocalContact(otherBeamline, idleStaffMember),
+                             session(proposal, MONDAY, 10), otherSession)
+                      .penalizesBy(2);
+  }
+
+  private static Session session(Proposal proposal, LocalDate date, int hour) {
+    var session = new Session(proposal, BEAMLINE);
+    session.setBeamtimeSlot(new BeamtimeSlot(date, hour, proposal.getBeamMode()));
+    session.setLocalContact(LOCAL_CONTACT);
+    return session;
+  }
+}
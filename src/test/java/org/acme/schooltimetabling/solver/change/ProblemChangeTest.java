@@ -0,0 +1,226 @@
+package org.acme.schooltimetabling.solver.change;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import ai.timefold.solver.core.api.solver.change.ProblemChangeDirector;
+import org.acme.schooltimetabling.domain.BeamMode;
+import org.acme.schooltimetabling.domain.Beamline;
+import org.acme.schooltimetabling.domain.BeamtimeSlot;
+import org.acme.schooltimetabling.domain.DatePreference;
+import org.acme.schooltimetabling.domain.LocalContact;
+import org.acme.schooltimetabling.domain.Proposal;
+import org.acme.schooltimetabling.domain.Session;
+import org.acme.schooltimetabling.domain.StaffMember;
+import org.acme.schooltimetabling.domain.Timetable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProblemChangeTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+  // Applies every change to the timetable right away, as the solver does to its working solution
+  private static final class DirectProblemChangeDirector implements ProblemChangeDirector {
+
+    @Override
+    public <Entity> void addEntity(Entity entity, Consumer<Entity> entityConsumer) {
+      entityConsumer.accept(entity);
+    }
+
+    @Override
+    public <Entity> void removeEntity(Entity entity, Consumer<Entity> entityConsumer) {
+      entityConsumer.accept(entity);
+    }
+
+    @Override
+    public <Entity> void changeVariable(Entity entity, String variableName, Consumer<Entity> entityConsumer) {
+      entityConsumer.accept(entity);
+    }
+
+    @Override
+    public <ProblemFact> void addProblemFact(ProblemFact problemFact, Consumer<ProblemFact> problemFactConsumer) {
+      problemFactConsumer.accept(problemFact);
+    }
+
+    @Override
+    public <ProblemFact> void removeProblemFact(ProblemFact problemFact, Consumer<ProblemFact> problemFactConsumer) {
+      problemFactConsumer.accept(problemFact);
+    }
+
+    @Override
+    public <EntityOrProblemFact> void changeProblemProperty(EntityOrProblemFact problemFactOrEntity,
+                                                            Consumer<EntityOrProblemFact> problemFactOrEntityConsumer) {
+      problemFactOrEntityConsumer.accept(problemFactOrEntity);
+    }
+
+    @Override
+    public <EntityOrProblemFact> EntityOrProblemFact lookUpWorkingObjectOrFail(EntityOrProblemFact externalObject) {
+      return externalObject;
+    }
+
+    @Override
+    public <EntityOrProblemFact> Optional<EntityOrProblemFact> lookUpWorkingObject(EntityOrProblemFact externalObject) {
+      return Optional.ofNullable(externalObject);
+    }
+
+    @Override
+    public void updateShadowVariables() {
+    }
+  }
+
+  private final ProblemChangeDirector problemChangeDirector = new DirectProblemChangeDirector();
+
+  private final BeamMode beamMode = new BeamMode("Single Bunch");
+
+  private final Beamline beamline = new Beamline("ID01");
+
+  private final StaffMember ann = new StaffMember("Ann");
+
+  private final StaffMember bob = new StaffMember("Bob");
+
+  private final LocalContact annOnBeamline = new LocalContact(beamline, ann);
+
+  private final LocalContact bobOnBeamline = new LocalContact(beamline, bob);
+
+  private final Proposal proposal = new Proposal("P-1", beamMode);
+
+  private final BeamtimeSlot mondaySlot = new BeamtimeSlot(MONDAY, 9, beamMode);
+
+  private final BeamtimeSlot tuesdaySlot = new BeamtimeSlot(MONDAY.plusDays(1), 9, beamMode);
+
+  private Session mondaySession;
+
+  private Session tuesdaySession;
+
+  private Timetable timetable;
+
+  @BeforeEach
+  void createTimetable() {
+    mondaySession = session("S-1", mondaySlot, annOnBeamline);
+    tuesdaySession = session("S-2", tuesdaySlot, bobOnBeamline);
+    timetable = new Timetable("test", List.of(mondaySlot, tuesdaySlot), List.of(beamline),
+                              List.of(mondaySession, tuesdaySession), List.of(annOnBeamline, bobOnBeamline));
+  }
+
+  @Test
+  void addSessions() {
+    new AddSessionsProblemChange("P-1", "id01", List.of("S-3", "S-4")).doChange(timetable, problemChangeDirector);
+
+    assertThat(timetable.getSessions()).extracting(Session::getId).containsExactly("S-1", "S-2", "S-3", "S-4");
+    for (Session session : timetable.getSessions().subList(2, 4)) {
+      assertThat(session.getProposal()).isSameAs(proposal);
+      assertThat(session.getBeamline()).isSameAs(beamline);
+      assertThat(session.getBeamtimeSlot()).isNull();
+      assertThat(session.getBeamtimeSlotRange()).containsExactly(mondaySlot, tuesdaySlot);
+      assertThat(session.getLocalContactRange()).containsExactly(annOnBeamline, bobOnBeamline);
+    }
+  }
+
+  @Test
+  void addSessionsToAnUnknownProposal() {
+    new AddSessionsProblemChange("P-2", "id01", List.of("S-3")).doChange(timetable, problemChangeDirector);
+
+    assertThat(timetable.getSessions()).containsExactly(mondaySession, tuesdaySession);
+  }
+
+  @Test
+  void addSessionsToABeamlineWithoutLocalContacts() {
+    var otherBeamline = new Beamline("ID02");
+    timetable = new Timetable("test", List.of(mondaySlot, tuesdaySlot), List.of(beamline, otherBeamline),
+                              List.of(mondaySession, tuesdaySession), List.of(annOnBeamline, bobOnBeamline));
+
+    new AddSessionsProblemChange("P-1", "id02", List.of("S-3")).doChange(timetable, problemChangeDirector);
+
+    assertThat(timetable.getSessions()).containsExactly(mondaySession, tuesdaySession);
+  }
+
+  @Test
+  void removeSession() {
+    new RemoveSessionProblemChange("S-1").doChange(timetable, problemChangeDirector);
+
+    assertThat(timetable.getSessions()).containsExactly(tuesdaySession);
+  }
+
+  // The sessions get a new proposal instance, the old one may still be read by a best solution clone
+  @Test
+  void changeDatePreferences() {
+    var datePreferences = List.of(new DatePreference(MONDAY, MONDAY, false));
+
+    new ChangeDatePreferencesProblemChange("P-1", datePreferences).doChange(timetable, problemChangeDirector);
+
+    Proposal changedProposal = mondaySession.getProposal();
+    assertThat(changedProposal).isNotSameAs(proposal).isSameAs(tuesdaySession.getProposal());
+    assertThat(changedProposal.getBeamMode()).isSameAs(beamMode);
+    assertThat(changedProposal.getDatePreferenceIndex().isUnacceptable(MONDAY.toEpochDay())).isTrue();
+    assertThat(proposal.getDatePreferences()).isNull();
+  }
+
+  @Test
+  void markBeamtimeSlotUnavailable() {
+    new MarkBeamtimeSlotUnavailableProblemChange(mondaySlot.getId()).doChange(timetable, problemChangeDirector);
+
+    assertThat(timetable.getBeamtimeSlots()).containsExactly(tuesdaySlot);
+    assertThat(mondaySession.getBeamtimeSlot()).isNull();
+    assertThat(tuesdaySession.getBeamtimeSlot()).isSameAs(tuesdaySlot);
+    assertThat(mondaySession.getBeamtimeSlotRange()).containsExactly(tuesdaySlot);
+  }
+
+  @Test
+  void addLocalContactOfANewStaffMember() {
+    new AddLocalContactProblemChange("LC-3", "id01", "SM-3", "Cid").doChange(timetable, problemChangeDirector);
+
+    assertThat(timetable.getStaffMembers()).extracting(StaffMember::getId)
+                                           .containsExactly(ann.getId(), bob.getId(), "SM-3");
+    LocalContact localContact = timetable.getLocalContacts().get(2);
+    assertThat(localContact.getId()).isEqualTo("LC-3");
+    assertThat(localContact.getStaffMember()).isSameAs(timetable.getStaffMembers().get(2));
+    assertThat(mondaySession.getLocalContactRange()).contains(localContact);
+  }
+
+  @Test
+  void removeTheLastLocalContactOfAStaffMember() {
+    new RemoveLocalContactProblemChange(annOnBeamline.getId()).doChange(timetable, problemChangeDirector);
+
+    assertThat(timetable.getLocalContacts()).containsExactly(bobOnBeamline);
+    assertThat(timetable.getStaffMembers()).containsExactly(bob);
+    assertThat(mondaySession.getLocalContact()).isNull();
+    assertThat(tuesdaySession.getLocalContact()).isSameAs(bobOnBeamline);
+  }
+
+  // The sessions of the beamline would have no local contact to get
+  @Test
+  void keepTheLastLocalContactOfABeamline() {
+    new RemoveLocalContactProblemChange(annOnBeamline.getId()).doChange(timetable, problemChangeDirector);
+    new RemoveLocalContactProblemChange(bobOnBeamline.getId()).doChange(timetable, problemChangeDirector);
+
+    assertThat(timetable.getLocalContacts()).containsExactly(bobOnBeamline);
+    assertThat(tuesdaySession.getLocalContact()).isSameAs(bobOnBeamline);
+  }
+
+  @Test
+  void removeALocalContactOfAStaffMemberWithOthers() {
+    var otherBeamline = new Beamline("ID02");
+    var annOnOtherBeamline = new LocalContact(otherBeamline, ann);
+    timetable = new Timetable("test", List.of(mondaySlot, tuesdaySlot), List.of(beamline, otherBeamline),
+                              List.of(mondaySession, tuesdaySession),
+                              List.of(annOnBeamline, bobOnBeamline, annOnOtherBeamline));
+
+    new RemoveLocalContactProblemChange(annOnBeamline.getId()).doChange(timetable, problemChangeDirector);
+
+    assertThat(timetable.getLocalContacts()).containsExactly(bobOnBeamline, annOnOtherBeamline);
+    assertThat(timetable.getStaffMembers()).containsExactly(ann, bob);
+  }
+
+  private Session session(String id, BeamtimeSlot beamtimeSlot, LocalContact localContact) {
+    var session = new Session(proposal, beamline);
+    session.setId(id);
+    session.setBeamtimeSlot(beamtimeSlot);
+    session.setLocalContact(localContact);
+    return session;
+  }
+}